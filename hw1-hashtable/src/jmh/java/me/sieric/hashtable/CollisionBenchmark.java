@@ -0,0 +1,71 @@
+package me.sieric.hashtable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups, when all the keys have the same hash code, as in a collision attack.
+ * The keys are made of the blocks "Aa" and "BB", which have equal hash codes.
+ * get() of HashTable, which keeps such keys in a TreeBucket, should grow logarithmically with the number of keys,
+ * get() of a plain List of the same Pairs (what every bucket was before) grows linearly
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CollisionBenchmark {
+
+    /** Number of the blocks in a key, there are 2^blocks colliding keys */
+    @Param({"8", "12", "16"})
+    private int blocks;
+
+    private String[] keys;
+    private HashTable table;
+    private List list;
+    private int position = 0;
+
+    @Setup
+    public void fill() {
+        keys = new String[1 << blocks];
+        table = new HashTable();
+        list = new List();
+        for (int i = 0; i < keys.length; i++) {
+            StringBuilder key = new StringBuilder();
+            for (int block = 0; block < blocks; block++) {
+                key.append((i >> block & 1) == 0 ? "Aa" : "BB");
+            }
+            keys[i] = key.toString();
+            table.put(keys[i], keys[i]);
+            list.put(new Pair(keys[i], keys[i]));
+        }
+    }
+
+    private String nextKey() {
+        position = (position + 7919) & (keys.length - 1);
+        return keys[position];
+    }
+
+    @Benchmark
+    public String treeBucketGet() {
+        return table.get(nextKey());
+    }
+
+    @Benchmark
+    public Pair listGet() {
+        String key = nextKey();
+        return list.get(key, HashTable.spread(key.hashCode()));
+    }
+}
@@ -0,0 +1,95 @@
+package me.sieric.hashtable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read scaling of ConcurrentHashTable against HashTable behind a global lock.
+ * Run it with a growing number of threads to get the scaling curve, e.g.
+ * -PjmhArgs="ConcurrentRead -t 1", then -t 2, 4, ..., 32.
+ * Every tenth operation of the mixed benchmarks is a put
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConcurrentReadBenchmark {
+
+    @Param({"1000000"})
+    private int size;
+
+    private String[] keys;
+    private ConcurrentHashTable concurrentTable;
+    private HashTable lockedTable;
+
+    @Setup
+    public void fillTables() {
+        keys = new String[size];
+        concurrentTable = new ConcurrentHashTable();
+        lockedTable = new HashTable(size);
+        for (int i = 0; i < size; i++) {
+            keys[i] = "key" + i;
+            concurrentTable.put(keys[i], keys[i]);
+            lockedTable.put(keys[i], keys[i]);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        /** Position in the keys, every thread starts at its own random one */
+        private int position = ThreadLocalRandom.current().nextInt(1 << 20);
+        private int operation = 0;
+    }
+
+    private String nextKey(ThreadState state) {
+        state.position = (state.position + 7919) % size;
+        return keys[state.position];
+    }
+
+    @Benchmark
+    public String getConcurrent(ThreadState state) {
+        return concurrentTable.get(nextKey(state));
+    }
+
+    @Benchmark
+    public String getLocked(ThreadState state) {
+        String key = nextKey(state);
+        synchronized (lockedTable) {
+            return lockedTable.get(key);
+        }
+    }
+
+    @Benchmark
+    public String mixedConcurrent(ThreadState state) {
+        String key = nextKey(state);
+        if (++state.operation % 10 == 0) {
+            return concurrentTable.put(key, key);
+        }
+        return concurrentTable.get(key);
+    }
+
+    @Benchmark
+    public String mixedLocked(ThreadState state) {
+        String key = nextKey(state);
+        synchronized (lockedTable) {
+            if (++state.operation % 10 == 0) {
+                return lockedTable.put(key, key);
+            }
+            return lockedTable.get(key);
+        }
+    }
+}
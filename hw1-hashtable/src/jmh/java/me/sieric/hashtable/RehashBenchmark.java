@@ -0,0 +1,83 @@
+package me.sieric.hashtable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of doubling the buckets of a full HashTable.
+ * cachedHashes moves the Pairs by the hashes cached in them, as {@link HashTable#rebuild()} does,
+ * recomputedHashes is the old rebuild, which called hashCode() of every key string
+ * and so touched every key on the way
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class RehashBenchmark {
+
+    @Param({"1000000", "10000000"})
+    private int size;
+
+    /** Full table: as many buckets as keys */
+    private Bucket[] buckets;
+
+    @Setup
+    public void fillBuckets() {
+        buckets = new Bucket[Integer.highestOneBit(size)];
+        for (int i = 0; i < size; i++) {
+            String key = "key" + i;
+            int index = HashTable.spread(key.hashCode()) & (buckets.length - 1);
+            if (buckets[index] == null) {
+                buckets[index] = new List();
+            }
+            buckets[index].putOrReplace(new Pair(key, key));
+        }
+    }
+
+    @Benchmark
+    public Bucket[] cachedHashes() {
+        Bucket[] newBuckets = new Bucket[buckets.length * 2];
+        for (Bucket bucket : buckets) {
+            if (bucket != null) {
+                for (Pair pair : bucket) {
+                    put(newBuckets, pair.getHash(), pair);
+                }
+            }
+        }
+        return newBuckets;
+    }
+
+    @Benchmark
+    public Bucket[] recomputedHashes() {
+        Bucket[] newBuckets = new Bucket[buckets.length * 2];
+        for (Bucket bucket : buckets) {
+            if (bucket != null) {
+                for (Pair pair : bucket) {
+                    put(newBuckets, HashTable.spread(pair.getKey().hashCode()), pair);
+                }
+            }
+        }
+        return newBuckets;
+    }
+
+    private static void put(Bucket[] table, int hash, Pair pair) {
+        int index = hash & (table.length - 1);
+        if (table[index] == null) {
+            table[index] = new List();
+        }
+        table[index].putOrReplace(pair);
+    }
+}
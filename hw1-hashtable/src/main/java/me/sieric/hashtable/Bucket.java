@@ -0,0 +1,36 @@
+package me.sieric.hashtable;
+
+/**
+ * Bucket of HashTable to store Pairs with equal hash.
+ * A short bucket is a {@link List}, a long one is a {@link TreeBucket}
+ */
+interface Bucket extends Iterable<Pair> {
+
+    /** Gets number of Pairs in the bucket */
+    int size();
+
+    /**
+     * Gets a Pair from bucket by key with known hash
+     * @return the Pair with given key or null if there's no such Pair
+     */
+    Pair get(String key, int hash);
+
+    /**
+     * Puts a Pair into bucket, replacing the Pair with the same key, if there is one
+     * @return the replaced Pair or null if there was no Pair with such key
+     */
+    Pair putOrReplace(Pair data);
+
+    /**
+     * Gets a Pair by its position in the bucket
+     * @return the Pair at given position
+     * @throws IndexOutOfBoundsException if there's no such position
+     */
+    Pair pairAt(int index) throws IndexOutOfBoundsException;
+
+    /**
+     * Removes a Pair from bucket by key with known hash
+     * @return the Pair with given key or null if there's no such Pair
+     */
+    Pair remove(String key, int hash);
+}
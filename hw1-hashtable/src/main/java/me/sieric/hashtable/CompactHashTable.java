@@ -0,0 +1,309 @@
+package me.sieric.hashtable;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Represents a collection of key/value pairs
+ * that are organized based on hash code of the key.
+ * Keys and values are not stored as Strings: every pair is encoded as length-prefixed bytes
+ * (see {@link StringCodec}, which differs from UTF-8 only for surrogates and keeps any string exactly)
+ * and appended to a ByteBuffer arena (direct, i.e. off-heap, or heap one),
+ * while the table itself is open addressing over arrays of hashes and offsets of the pairs in the arena.
+ * Replaced and removed pairs leave garbage in the arena, which is compacted when the arena is full
+ */
+public class CompactHashTable implements HashTableInterface {
+
+    private static final int INITIAL_CAPACITY = 2;
+    private static final int INITIAL_ARENA_SIZE = 64;
+
+    /** Marks empty slots in the offsets array */
+    private static final int EMPTY = -1;
+
+    private int capacity = INITIAL_CAPACITY;
+    private int size = 0;
+
+    /** Cached hashes of the stored keys */
+    private int[] hashes = new int[capacity];
+
+    /** Offsets of the pairs in the arena, EMPTY marks an empty slot */
+    private int[] offsets = newOffsets(capacity);
+
+    /** If true, the arena is allocated outside the heap */
+    private final boolean direct;
+
+    /** Encoded pairs: key length, key bytes, value length, value bytes */
+    private ByteBuffer arena;
+
+    /** Number of bytes of the arena, which are used by replaced or removed pairs */
+    private int garbage = 0;
+
+    /** Creates CompactHashTable with the arena on the heap */
+    public CompactHashTable() {
+        this(false);
+    }
+
+    /**
+     * Creates CompactHashTable
+     * @param direct - if true, the arena is a direct ByteBuffer, so garbage collector doesn't scan it
+     */
+    public CompactHashTable(boolean direct) {
+        this.direct = direct;
+        arena = allocate(INITIAL_ARENA_SIZE);
+    }
+
+    private ByteBuffer allocate(int bytes) {
+        return direct ? ByteBuffer.allocateDirect(bytes) : ByteBuffer.allocate(bytes);
+    }
+
+    private static int[] newOffsets(int capacity) {
+        int[] offsets = new int[capacity];
+        Arrays.fill(offsets, EMPTY);
+        return offsets;
+    }
+
+    /**
+     * Gets string's hash
+     * @return spread hash of given string key
+     * @throws IllegalArgumentException if string is null
+     */
+    protected int getHash(String key) throws IllegalArgumentException {
+        if (key == null) {
+            throw new IllegalArgumentException("Key must be not null");
+        }
+        return HashTable.spread(key.hashCode());
+    }
+
+    /** Checks if the key stored at given offset of the arena equals to the encoded key */
+    private boolean keyEquals(int offset, byte[] key) {
+        if (arena.getInt(offset) != key.length) {
+            return false;
+        }
+        offset += Integer.BYTES;
+        for (int i = 0; i < key.length; i++) {
+            if (arena.get(offset + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the slot of the key
+     * @return index of the slot with given key or of the empty slot where the probing stopped
+     */
+    private int findSlot(byte[] key, int hash) {
+        int mask = capacity - 1;
+        int slot = hash & mask;
+        while (offsets[slot] != EMPTY && (hashes[slot] != hash || !keyEquals(offsets[slot], key))) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /** Decodes the string stored with its length at given offset */
+    private String readString(int offset) {
+        return StringCodec.decode(arena, offset + Integer.BYTES, arena.getInt(offset));
+    }
+
+    /** Gets the offset of the value of the pair stored at given offset */
+    private int valueOffset(int offset) {
+        return offset + Integer.BYTES + arena.getInt(offset);
+    }
+
+    /** Gets the number of bytes used by the pair stored at given offset */
+    private int pairLength(int offset) {
+        int valueOffset = valueOffset(offset);
+        return valueOffset + Integer.BYTES + arena.getInt(valueOffset) - offset;
+    }
+
+    /**
+     * Gets number of elements stored in HashTable
+     * @return number of keys in HashTable
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if Hashtable contains a string
+     * @return true if HashTable contains a key or false otherwise
+     * @throws IllegalArgumentException if string is null
+     */
+    @Override
+    public boolean contains(String key) throws IllegalArgumentException {
+        int hash = getHash(key);
+        return offsets[findSlot(StringCodec.encode(key), hash)] != EMPTY;
+    }
+
+    /**
+     * Gets a value from HashTable by key
+     * @return value by key or null if there's no such key in HashTable
+     * @throws IllegalArgumentException if string is null
+     */
+    @Override
+    public String get(String key) throws IllegalArgumentException {
+        int hash = getHash(key);
+        int offset = offsets[findSlot(StringCodec.encode(key), hash)];
+        if (offset == EMPTY) {
+            return null;
+        }
+        return readString(valueOffset(offset));
+    }
+
+    /**
+     * Puts a value by key into HashTable
+     * If hashtable previously contained the mapping for key, the old value is replaced (and returned)
+     * @return previous value by key or null if there's no such key in HashTable
+     * @throws IllegalArgumentException if string is null
+     */
+    @Override
+    public String put(String key, String value) throws IllegalArgumentException {
+        if (value == null) {
+            throw new IllegalArgumentException("Value must be not null");
+        }
+        int hash = getHash(key);
+        byte[] keyBytes = StringCodec.encode(key);
+        byte[] valueBytes = StringCodec.encode(value);
+        int slot = findSlot(keyBytes, hash);
+        String oldValue = null;
+        if (offsets[slot] != EMPTY) {
+            oldValue = readString(valueOffset(offsets[slot]));
+            garbage += pairLength(offsets[slot]);
+            // the old pair must not be moved if the arena is compacted by append
+            offsets[slot] = EMPTY;
+        } else {
+            size++;
+            if (2 * size > capacity) {
+                rebuild(capacity * 2);
+                slot = findSlot(keyBytes, hash);
+            }
+            hashes[slot] = hash;
+        }
+        offsets[slot] = append(keyBytes, valueBytes);
+        return oldValue;
+    }
+
+    /**
+     * Removes a key with value from HashTable
+     * @return value by key or null if there's no such key in HashTable
+     * @throws IllegalArgumentException if string is null
+     */
+    @Override
+    public String remove(String key) throws IllegalArgumentException {
+        int hash = getHash(key);
+        int slot = findSlot(StringCodec.encode(key), hash);
+        if (offsets[slot] == EMPTY) {
+            return null;
+        }
+        String oldValue = readString(valueOffset(offsets[slot]));
+        garbage += pairLength(offsets[slot]);
+        size--;
+        shiftBack(slot);
+        return oldValue;
+    }
+
+    /** Clears HashTable, the arena is kept to be reused */
+    @Override
+    public void clear() {
+        capacity = INITIAL_CAPACITY;
+        size = 0;
+        hashes = new int[capacity];
+        offsets = newOffsets(capacity);
+        arena.clear();
+        garbage = 0;
+    }
+
+    /** Gets the number of bytes of the arena used by the stored pairs */
+    int arenaUsed() {
+        return arena.position() - garbage;
+    }
+
+    /**
+     * Appends the encoded pair to the arena
+     * @return offset of the pair
+     */
+    private int append(byte[] key, byte[] value) {
+        long length = 2L * Integer.BYTES + key.length + value.length;
+        if (arena.remaining() < length) {
+            ensureArena(length);
+        }
+        int offset = arena.position();
+        arena.putInt(key.length).put(key).putInt(value.length).put(value);
+        return offset;
+    }
+
+    /**
+     * Makes room for the pair of given length:
+     * compacts the arena if at least a half of it is garbage, otherwise doubles it
+     * @throws IllegalStateException if the arena can't be larger than 2GB
+     */
+    private void ensureArena(long length) throws IllegalStateException {
+        long used = arena.position() - garbage;
+        long newSize = arena.capacity();
+        if (garbage < used) {
+            while (newSize < used + length) {
+                newSize *= 2;
+            }
+        }
+        if (used + length > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Arena is too large");
+        }
+        ByteBuffer newArena = allocate((int) Math.min(Math.max(newSize, used + length), Integer.MAX_VALUE));
+        for (int i = 0; i < capacity; i++) {
+            if (offsets[i] == EMPTY) {
+                continue;
+            }
+            int offset = offsets[i];
+            int pairLength = pairLength(offset);
+            offsets[i] = newArena.position();
+            ByteBuffer pair = arena.duplicate();
+            pair.limit(offset + pairLength).position(offset);
+            newArena.put(pair);
+        }
+        arena = newArena;
+        garbage = 0;
+    }
+
+    /**
+     * Empties the slot, moving back the entries of the probe sequence after it,
+     * so that lookups never need tombstones
+     */
+    private void shiftBack(int slot) {
+        int mask = capacity - 1;
+        int next = (slot + 1) & mask;
+        while (offsets[next] != EMPTY) {
+            int home = hashes[next] & mask;
+            // the entry can be moved only if its home slot is not in the cyclic interval (slot, next]
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                offsets[slot] = offsets[next];
+                hashes[slot] = hashes[next];
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        offsets[slot] = EMPTY;
+    }
+
+    /** Rebuilds hashtable with the new capacity, the arena is not changed */
+    private void rebuild(int newCapacity) {
+        int[] oldOffsets = offsets;
+        int[] oldHashes = hashes;
+        capacity = newCapacity;
+        offsets = newOffsets(capacity);
+        hashes = new int[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldOffsets.length; i++) {
+            if (oldOffsets[i] == EMPTY) {
+                continue;
+            }
+            int slot = oldHashes[i] & mask;
+            while (offsets[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            offsets[slot] = oldOffsets[i];
+            hashes[slot] = oldHashes[i];
+        }
+    }
+}
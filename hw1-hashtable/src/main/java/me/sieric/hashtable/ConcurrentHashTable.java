@@ -0,0 +1,312 @@
+package me.sieric.hashtable;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * Thread-safe collection of key/value pairs
+ * that are organized based on hash code of the key.
+ * Keys are divided between segments, every segment is a separate hash table guarded by its own lock.
+ * Reads take no locks: lists are made of nodes with final links,
+ * which are published through volatile bucket heads and table references.
+ * size() and the result of reads concurrent with writes are weakly consistent
+ */
+public class ConcurrentHashTable implements HashTableInterface {
+
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+    private static final int MAXIMUM_CONCURRENCY_LEVEL = 1 << 16;
+    private static final int INITIAL_SEGMENT_CAPACITY = 2;
+    private static final int MAXIMUM_SEGMENT_CAPACITY = 1 << 30;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final Segment[] segments;
+
+    /** Shift of the mixed hash to get the index of the segment */
+    private final int segmentShift;
+
+    /** Creates ConcurrentHashTable with 16 segments */
+    public ConcurrentHashTable() {
+        this(DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * Creates ConcurrentHashTable
+     * @param concurrencyLevel - expected number of concurrently writing threads,
+     *                         the number of segments is the closest power of two not less than it
+     * @throws IllegalArgumentException if concurrencyLevel is not positive
+     */
+    public ConcurrentHashTable(int concurrencyLevel) throws IllegalArgumentException {
+        if (concurrencyLevel <= 0) {
+            throw new IllegalArgumentException("Concurrency level must be positive");
+        }
+        int segmentsNumber = 1;
+        int shift = 32;
+        while (segmentsNumber < Math.min(concurrencyLevel, MAXIMUM_CONCURRENCY_LEVEL)) {
+            segmentsNumber *= 2;
+            shift--;
+        }
+        segmentShift = shift;
+        segments = new Segment[segmentsNumber];
+        for (int i = 0; i < segmentsNumber; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Gets string's hash
+     * @return spread hash of given string key
+     * @throws IllegalArgumentException if string is null
+     */
+    protected int getHash(String key) throws IllegalArgumentException {
+        if (key == null) {
+            throw new IllegalArgumentException("Key must be not null");
+        }
+        return HashTable.spread(key.hashCode());
+    }
+
+    /**
+     * Gets the segment for the hash.
+     * Uses the high bits of the hash multiplied by the golden ratio,
+     * so that they don't correlate with the low bits used inside the segment
+     */
+    private Segment segmentFor(int hash) {
+        if (segmentShift == 32) {
+            return segments[0];
+        }
+        return segments[(hash * 0x9E3779B9) >>> segmentShift];
+    }
+
+    /**
+     * Gets number of elements stored in HashTable
+     * @return number of keys in HashTable
+     */
+    @Override
+    public int size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.count;
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Checks if Hashtable contains a string
+     * @return true if HashTable contains a key or false otherwise
+     * @throws IllegalArgumentException if string is null
+     */
+    @Override
+    public boolean contains(String key) throws IllegalArgumentException {
+        return get(key) != null;
+    }
+
+    /**
+     * Gets a value from HashTable by key without locking
+     * @return value by key or null if there's no such key in HashTable
+     * @throws IllegalArgumentException if string is null
+     */
+    @Override
+    public String get(String key) throws IllegalArgumentException {
+        int hash = getHash(key);
+        return segmentFor(hash).get(key, hash);
+    }
+
+    /**
+     * Puts a value by key into HashTable
+     * If hashtable previously contained the mapping for key, the old value is replaced (and returned)
+     * @return previous value by key or null if there's no such key in HashTable
+     * @throws IllegalArgumentException if string is null
+     */
+    @Override
+    public String put(String key, String value) throws IllegalArgumentException {
+        if (value == null) {
+            throw new IllegalArgumentException("Value must be not null");
+        }
+        int hash = getHash(key);
+        return segmentFor(hash).put(key, hash, value, false);
+    }
+
+    /**
+     * Atomically puts a value by key into HashTable, if there's no such key yet
+     * @return current value by key or null if there was no such key and the value has been put
+     * @throws IllegalArgumentException if string is null
+     */
+    public String putIfAbsent(String key, String value) throws IllegalArgumentException {
+        if (value == null) {
+            throw new IllegalArgumentException("Value must be not null");
+        }
+        int hash = getHash(key);
+        return segmentFor(hash).put(key, hash, value, true);
+    }
+
+    /**
+     * Gets a value by key, computing and putting it atomically if there's no such key.
+     * The function is called at most once per absent key, while the segment of the key is locked,
+     * so it must be short and must not modify this table
+     * @return current (existing or computed) value by key or null if the function returned null
+     * @throws IllegalArgumentException if string or function is null
+     */
+    public String computeIfAbsent(String key, Function<String, String> mappingFunction)
+            throws IllegalArgumentException {
+        if (mappingFunction == null) {
+            throw new IllegalArgumentException("Function must be not null");
+        }
+        int hash = getHash(key);
+        Segment segment = segmentFor(hash);
+        String value = segment.get(key, hash);
+        if (value != null) {
+            return value;
+        }
+        return segment.computeIfAbsent(key, hash, mappingFunction);
+    }
+
+    /**
+     * Removes a key with value from HashTable
+     * @return value by key or null if there's no such key in HashTable
+     * @throws IllegalArgumentException if string is null
+     */
+    @Override
+    public String remove(String key) throws IllegalArgumentException {
+        int hash = getHash(key);
+        return segmentFor(hash).remove(key, hash);
+    }
+
+    /** Clears HashTable, segments are cleared one by one */
+    @Override
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /** Node of a list in a segment, the links are final so a list can be read without locking */
+    private static class Node {
+
+        private final String key;
+        private final int hash;
+        private volatile String value;
+        private final Node next;
+
+        private Node(String key, int hash, String value, Node next) {
+            this.key = key;
+            this.hash = hash;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    /** Hash table guarded by its own lock, all the writes are made under it */
+    private static class Segment {
+
+        /** Lists heads, the reference is replaced when the segment is rehashed */
+        private volatile AtomicReferenceArray<Node> table = new AtomicReferenceArray<>(INITIAL_SEGMENT_CAPACITY);
+
+        /** Number of keys in the segment */
+        private volatile int count = 0;
+
+        /** Number of keys, after which the segment grows */
+        private int threshold = (int) (INITIAL_SEGMENT_CAPACITY * LOAD_FACTOR);
+
+        /** Finds node in the list starting at given head */
+        private static Node find(Node node, String key, int hash) {
+            while (node != null && (node.hash != hash || !node.key.equals(key))) {
+                node = node.next;
+            }
+            return node;
+        }
+
+        private String get(String key, int hash) {
+            AtomicReferenceArray<Node> currentTable = table;
+            Node node = find(currentTable.get(hash & (currentTable.length() - 1)), key, hash);
+            return node == null ? null : node.value;
+        }
+
+        private synchronized String put(String key, int hash, String value, boolean onlyIfAbsent) {
+            AtomicReferenceArray<Node> currentTable = table;
+            int index = hash & (currentTable.length() - 1);
+            Node head = currentTable.get(index);
+            Node node = find(head, key, hash);
+            if (node != null) {
+                String oldValue = node.value;
+                if (!onlyIfAbsent) {
+                    node.value = value;
+                }
+                return oldValue;
+            }
+            currentTable.set(index, new Node(key, hash, value, head));
+            added();
+            return null;
+        }
+
+        private synchronized String computeIfAbsent(String key, int hash, Function<String, String> mappingFunction) {
+            AtomicReferenceArray<Node> currentTable = table;
+            int index = hash & (currentTable.length() - 1);
+            Node head = currentTable.get(index);
+            Node node = find(head, key, hash);
+            if (node != null) {
+                return node.value;
+            }
+            String value = mappingFunction.apply(key);
+            if (value != null) {
+                currentTable.set(index, new Node(key, hash, value, head));
+                added();
+            }
+            return value;
+        }
+
+        /** Removes the node, copying the nodes before it, so concurrent readers still see a consistent list */
+        private synchronized String remove(String key, int hash) {
+            AtomicReferenceArray<Node> currentTable = table;
+            int index = hash & (currentTable.length() - 1);
+            Node head = currentTable.get(index);
+            Node node = find(head, key, hash);
+            if (node == null) {
+                return null;
+            }
+            Node newHead = node.next;
+            for (Node current = head; current != node; current = current.next) {
+                newHead = new Node(current.key, current.hash, current.value, newHead);
+            }
+            currentTable.set(index, newHead);
+            count = count - 1;
+            return node.value;
+        }
+
+        private synchronized void clear() {
+            AtomicReferenceArray<Node> currentTable = table;
+            for (int i = 0; i < currentTable.length(); i++) {
+                currentTable.set(i, null);
+            }
+            count = 0;
+        }
+
+        /** Increments the number of keys and rehashes the segment if it's too big */
+        private void added() {
+            count = count + 1;
+            if (count > threshold) {
+                rebuild();
+            }
+        }
+
+        /**
+         * Increases the capacity (x2), copying the nodes into a new table,
+         * which is published after it's filled
+         */
+        private void rebuild() {
+            AtomicReferenceArray<Node> oldTable = table;
+            if (oldTable.length() == MAXIMUM_SEGMENT_CAPACITY) {
+                threshold = Integer.MAX_VALUE;
+                return;
+            }
+            int capacity = oldTable.length() * 2;
+            AtomicReferenceArray<Node> newTable = new AtomicReferenceArray<>(capacity);
+            for (int i = 0; i < oldTable.length(); i++) {
+                for (Node node = oldTable.get(i); node != null; node = node.next) {
+                    int index = node.hash & (capacity - 1);
+                    newTable.set(index, new Node(node.key, node.hash, node.value, newTable.get(index)));
+                }
+            }
+            threshold = (int) (capacity * LOAD_FACTOR);
+            table = newTable;
+        }
+    }
+}
@@ -1,35 +1,216 @@
 package me.sieric.hashtable;
 
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
 /**
  * Represents a collection of key/value pairs
- * that are organized based on hash code of the key
+ * that are organized based on hash code of the key.
+ * Pairs with equal hash are stored in lists, which are turned into balanced trees when they become too long,
+ * so even many colliding keys are found in logarithmic time.
+ * The table grows when the number of keys exceeds capacity * loadFactor
+ * and shrinks after mass removal, but never below the capacity for the expected size.
+ * Can be created in incremental resize mode: then the table is not rehashed at once
+ * when it grows, but a few lists are moved into the new table on every operation
  */
-public class HashTable {
+public class HashTable implements HashTableInterface {
 
     private static final int INITIAL_CAPACITY = 2;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+    private static final float DEFAULT_LOAD_FACTOR = 1.0f;
+
+    /** The table shrinks when the number of keys is less than threshold / SHRINK_RATIO */
+    private static final int SHRINK_RATIO = 4;
+
+    /** A list is turned into a tree, when it becomes longer */
+    private static final int TREEIFY_THRESHOLD = 8;
+
+    /** A tree is turned back into a list, when it becomes not longer */
+    private static final int UNTREEIFY_THRESHOLD = 6;
+
+    /** Number of buckets moved into the new table by every operation while resizing incrementally */
+    private static final int MIGRATION_STEP = 4;
 
-    private int capacity = INITIAL_CAPACITY;
+    private int capacity;
     private int size = 0;
 
-    /** Lists with Pairs with equal hash */
-    private List[] data = new List[capacity];
+    /** Maximal average number of keys per list */
+    private final float loadFactor;
+
+    /** Number of keys, after which the table grows */
+    private int threshold;
+
+    /** Capacity for the expected size, the table never shrinks below it */
+    private final int minCapacity;
+
+    /** Buckets with Pairs with equal hash (capacity is always a power of two) */
+    private Bucket[] data;
+
+    /** If true, the table grows incrementally */
+    private final boolean incrementalResize;
+
+    /** Buckets of the table before resize, which are not moved yet, or null if there's no resize in progress */
+    private Bucket[] oldData = null;
+
+    /** Number of buckets of oldData already moved into data */
+    private int migrated = 0;
+
+    /** Number of structural modifications, used to invalidate cursors */
+    private int modCount = 0;
+
+    /** Creates HashTable which is rehashed at once when it grows */
+    public HashTable() {
+        this(false);
+    }
+
+    /**
+     * Creates HashTable
+     * @param incrementalResize - if true, the table is rehashed incrementally by all the following operations,
+     *                          so that no single operation rehashes the whole table
+     */
+    public HashTable(boolean incrementalResize) {
+        this(0, DEFAULT_LOAD_FACTOR, incrementalResize);
+    }
+
+    /**
+     * Creates HashTable, which can store expectedSize keys without rehashing
+     * @throws IllegalArgumentException if expectedSize is negative
+     */
+    public HashTable(int expectedSize) throws IllegalArgumentException {
+        this(expectedSize, DEFAULT_LOAD_FACTOR, false);
+    }
+
+    /**
+     * Creates HashTable, which can store expectedSize keys without rehashing
+     * @throws IllegalArgumentException if expectedSize is negative or loadFactor is not positive
+     */
+    public HashTable(int expectedSize, float loadFactor) throws IllegalArgumentException {
+        this(expectedSize, loadFactor, false);
+    }
+
+    /**
+     * Creates HashTable, which can store expectedSize keys without rehashing
+     * @param expectedSize - expected number of keys
+     * @param loadFactor - maximal average number of keys per list
+     * @param incrementalResize - if true, the table is rehashed incrementally by all the following operations,
+     *                          so that no single operation rehashes the whole table
+     * @throws IllegalArgumentException if expectedSize is negative or loadFactor is not positive
+     */
+    public HashTable(int expectedSize, float loadFactor, boolean incrementalResize) throws IllegalArgumentException {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must be not negative");
+        }
+        if (!(loadFactor > 0)) {
+            throw new IllegalArgumentException("Load factor must be positive");
+        }
+        this.loadFactor = loadFactor;
+        this.incrementalResize = incrementalResize;
+        minCapacity = capacityFor(expectedSize);
+        capacity = minCapacity;
+        threshold = thresholdFor(capacity);
+        data = new Bucket[capacity];
+    }
+
+    /**
+     * Gets the minimal capacity to store given number of keys
+     * @return power of two capacity
+     */
+    private int capacityFor(int size) {
+        int result = INITIAL_CAPACITY;
+        while (result < MAXIMUM_CAPACITY && thresholdFor(result) < size) {
+            result *= 2;
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of keys, after which the table with given capacity grows
+     * @return threshold for the capacity
+     */
+    private int thresholdFor(int capacity) {
+        if (capacity == MAXIMUM_CAPACITY) {
+            return Integer.MAX_VALUE;
+        }
+        return (int) Math.min(capacity * (double) loadFactor, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Mixes the high bits of hash code into the low ones,
+     * so that masking by a power-of-two capacity uses all of them
+     * @return spread hash code
+     */
+    static int spread(int hashCode) {
+        return hashCode ^ (hashCode >>> 16);
+    }
 
     /**
      * Gets string's hash
-     * @return hash of given string key
+     * @return spread hash of given string key
      * @throws IllegalArgumentException if string is null
      */
     protected int getHash(String key) throws IllegalArgumentException {
         if (key == null) {
             throw new IllegalArgumentException("Key must be not null");
         }
-        return Math.abs(key.hashCode()) % capacity;
+        return spread(key.hashCode());
+    }
+
+    /**
+     * Gets the table, where a Pair with given hash is stored.
+     * While resizing it is either the old table (if the bucket is not moved yet) or the new one
+     * @return the table for the hash
+     */
+    private Bucket[] tableFor(int hash) {
+        if (oldData != null && (hash & (oldData.length - 1)) >= migrated) {
+            return oldData;
+        }
+        return data;
+    }
+
+    /**
+     * Gets the bucket, where a Pair with given hash is stored
+     * @return the bucket for the hash or null if it's not created yet
+     */
+    private Bucket getBucket(int hash) {
+        Bucket[] table = tableFor(hash);
+        return table[hash & (table.length - 1)];
+    }
+
+    /**
+     * Puts the Pair into its bucket of the table, replacing the Pair with the same key.
+     * Turns the bucket into a tree, if it becomes too long
+     * @return the replaced Pair or null if there was no Pair with such key
+     */
+    private static Pair putIntoBucket(Bucket[] table, Pair pair) {
+        int index = pair.getHash() & (table.length - 1);
+        if (table[index] == null) {
+            table[index] = new List();
+        }
+        Pair oldPair = table[index].putOrReplace(pair);
+        if (oldPair == null && table[index] instanceof List && table[index].size() > TREEIFY_THRESHOLD) {
+            table[index] = new TreeBucket(table[index]);
+        }
+        return oldPair;
     }
 
     /**
      * Gets number of elements stored in HashTable
      * @return number of keys in HashTable
      */
+    @Override
     public int size() {
         return size;
     }
@@ -39,9 +220,12 @@ public class HashTable {
      * @return true if HashTable contains a key or false otherwise
      * @throws IllegalArgumentException if string is null
      */
+    @Override
     public boolean contains(String key) throws IllegalArgumentException {
         int hash = getHash(key);
-        return (data[hash] != null && data[hash].get(key) != null);
+        migrate(MIGRATION_STEP);
+        Bucket bucket = getBucket(hash);
+        return (bucket != null && bucket.get(key, hash) != null);
     }
 
     /**
@@ -49,12 +233,15 @@ public class HashTable {
      * @return value by key or null if there's no such key in HashTable
      * @throws IllegalArgumentException if string is null
      */
+    @Override
     public String get(String key) throws IllegalArgumentException {
         int hash = getHash(key);
-        if (data[hash] == null) {
+        migrate(MIGRATION_STEP);
+        Bucket bucket = getBucket(hash);
+        if (bucket == null) {
             return null;
         }
-        Pair pair = data[hash].get(key);
+        Pair pair = bucket.get(key, hash);
         if (pair != null) {
             return pair.getValue();
         }
@@ -67,73 +254,356 @@ public class HashTable {
      * @return previous value by key or null if there's no such key in HashTable
      * @throws IllegalArgumentException if string is null
      */
+    @Override
     public String put(String key, String value) throws IllegalArgumentException {
         if (value == null) {
             throw new IllegalArgumentException("Value must be not null");
         }
         int hash = getHash(key);
-        if (data[hash] == null) {
-            data[hash] = new List();
-        }
-        Pair pair = data[hash].get(key);
+        migrate(MIGRATION_STEP);
+        Pair pair = putIntoBucket(tableFor(hash), new Pair(key, value, hash));
         if (pair != null) {
-            data[hash].remove(key);
-            data[hash].put(new Pair(key, value));
             return pair.getValue();
-        } else {
-            size++;
-            if (size > capacity) {
-                rebuild();
+        }
+        size++;
+        modCount++;
+        if (size > threshold) {
+            resize(capacity * 2);
+        }
+        return null;
+    }
+
+    /**
+     * Puts values by keys into HashTable: the value values[i] by the key keys[i].
+     * The table is resized at most once, before putting the pairs
+     * @throws IllegalArgumentException if arrays are null or of different lengths, or contain null
+     */
+    public void putAll(String[] keys, String[] values) throws IllegalArgumentException {
+        if (keys == null || values == null) {
+            throw new IllegalArgumentException("Arrays must be not null");
+        }
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("Arrays must have equal lengths");
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == null) {
+                throw new IllegalArgumentException("Key must be not null");
+            }
+            if (values[i] == null) {
+                throw new IllegalArgumentException("Value must be not null");
+            }
+        }
+        int newCapacity = capacityFor((int) Math.min((long) size + keys.length, Integer.MAX_VALUE));
+        if (newCapacity > capacity || oldData != null) {
+            rehash(Math.max(newCapacity, capacity));
+        }
+        for (int i = 0; i < keys.length; i++) {
+            int hash = spread(keys[i].hashCode());
+            if (putIntoBucket(data, new Pair(keys[i], values[i], hash)) == null) {
+                size++;
+                modCount++;
             }
-            data[hash].put(new Pair(key, value));
-            return null;
         }
     }
 
+    /**
+     * Gets values from HashTable by keys
+     * @return array, which i-th element is the value by keys[i] or null if there's no such key in HashTable
+     * @throws IllegalArgumentException if array is null or contains null
+     */
+    public String[] getAll(String[] keys) throws IllegalArgumentException {
+        if (keys == null) {
+            throw new IllegalArgumentException("Array must be not null");
+        }
+        String[] values = new String[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            values[i] = get(keys[i]);
+        }
+        return values;
+    }
+
     /**
      * Removes a key with value from HashTable
      * @return value by key or null if there's no such key in HashTable
      * @throws IllegalArgumentException if string is null
      */
+    @Override
     public String remove(String key) throws IllegalArgumentException {
         int hash = getHash(key);
-        if (data[hash] == null) {
+        migrate(MIGRATION_STEP);
+        Bucket[] table = tableFor(hash);
+        int index = hash & (table.length - 1);
+        if (table[index] == null) {
             return null;
         }
-        Pair pair = data[hash].remove(key);
+        Pair pair = table[index].remove(key, hash);
         if (pair != null) {
+            if (table[index] instanceof TreeBucket && table[index].size() <= UNTREEIFY_THRESHOLD) {
+                table[index] = toList(table[index]);
+            }
             size--;
+            modCount++;
+            if (capacity > minCapacity && size < threshold / SHRINK_RATIO) {
+                resize(capacity / 2);
+            }
             return pair.getValue();
         }
         return null;
 
     }
 
-    /** Clears HashTable */
+    /**
+     * Clears HashTable.
+     * The capacity is kept, so refilling the table doesn't rehash it again
+     */
+    @Override
     public void clear() {
-        capacity = INITIAL_CAPACITY;
         size = 0;
-        data = new List[capacity];
+        modCount++;
+        Arrays.fill(data, null);
+        oldData = null;
+        migrated = 0;
     }
 
     /**
-     * Rebuilds hashtable, increases the capacity (x2)
-     * if the number of stored elements is too big
+     * Shrinks the capacity to the minimal one, which is enough for the stored keys,
+     * but not below the capacity for the expected size
      */
-    protected void rebuild() {
-        capacity *= 2;
-        List[] oldData = data;
-        data = new List[capacity];
-        for (int i = 0; i < capacity / 2; i++) {
-            if (oldData[i] == null) {
+    public void trimToSize() {
+        int newCapacity = Math.max(minCapacity, capacityFor(size));
+        if (newCapacity < capacity || oldData != null) {
+            rehash(newCapacity);
+        }
+    }
+
+    /** Gets number of buckets in the table */
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Writes a binary snapshot of HashTable into the file,
+     * so it can be served by {@link SnapshotHashTable#open(Path)} without inserting the pairs again.
+     * The snapshot is written into a temporary file next to the given one and then moved in its place,
+     * so the previous snapshot is kept untouched if writing fails.
+     * Finishes an incremental resize, if there's one in progress
+     * @throws IOException if writing failed or the snapshot is larger than 2GB
+     */
+    public void writeSnapshot(Path path) throws IOException {
+        migrate(Integer.MAX_VALUE);
+        long listsOffset = SnapshotHashTable.HEADER_SIZE + (capacity + 1L) * Integer.BYTES;
+        if (listsOffset > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot is too large");
+        }
+        Path directory = path.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                writeSnapshot(channel, (int) listsOffset);
+                channel.force(true);
+            }
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /** Writes the snapshot into the empty file, the lists start at given offset */
+    private void writeSnapshot(FileChannel channel, int listsOffset) throws IOException {
+        ByteBuffer offsets = ByteBuffer.allocate(listsOffset);
+        offsets.putInt(SnapshotHashTable.MAGIC).putInt(SnapshotHashTable.VERSION).putInt(capacity).putInt(size);
+        channel.position(listsOffset);
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+        long offset = listsOffset;
+        for (Bucket bucket : data) {
+            offsets.putInt((int) offset);
+            if (bucket == null) {
                 continue;
             }
-            for (Pair pair : oldData[i]) {
-                int hash = getHash(pair.getKey());
-                if (data[hash] == null) {
-                    data[hash] = new List();
+            for (Pair pair : bucket) {
+                byte[] key = StringCodec.encode(pair.getKey());
+                byte[] value = StringCodec.encode(pair.getValue());
+                offset += 3 * Integer.BYTES + key.length + value.length;
+                if (offset > Integer.MAX_VALUE) {
+                    throw new IOException("Snapshot is too large");
+                }
+                out.writeInt(pair.getHash());
+                out.writeInt(key.length);
+                out.write(key);
+                out.writeInt(value.length);
+                out.write(value);
+            }
+        }
+        offsets.putInt((int) offset);
+        out.flush();
+        offsets.flip();
+        channel.position(0);
+        while (offsets.hasRemaining()) {
+            channel.write(offsets);
+        }
+    }
+
+    /**
+     * Performs the action for every key and value.
+     * Walks the buckets directly, so nothing is allocated per pair.
+     * Finishes an incremental resize, if there's one in progress
+     */
+    public void forEach(BiConsumer<String, String> action) {
+        migrate(Integer.MAX_VALUE);
+        Consumer<Pair> pairAction = pair -> action.accept(pair.getKey(), pair.getValue());
+        for (Bucket bucket : data) {
+            if (bucket != null) {
+                bucket.forEach(pairAction);
+            }
+        }
+    }
+
+    /**
+     * Gets a cursor over the keys and values of HashTable.
+     * Finishes an incremental resize, if there's one in progress
+     * @return cursor before the first pair
+     */
+    public Cursor entries() {
+        migrate(Integer.MAX_VALUE);
+        return new Cursor();
+    }
+
+    /**
+     * Mutable cursor over the pairs of HashTable.
+     * Moving the cursor allocates nothing, the same object points to every pair in turn.
+     * The cursor is invalidated by any put of a new key, remove or clear
+     */
+    public class Cursor {
+
+        private final Bucket[] table = data;
+        private final int expectedModCount = modCount;
+        private int bucketIndex = 0;
+        private int position = -1;
+        private Pair current = null;
+
+        private Cursor() {
+        }
+
+        /**
+         * Moves the cursor to the next pair
+         * @return true if the cursor points to a pair, false if there are no more pairs
+         * @throws ConcurrentModificationException if HashTable was modified after the cursor creation
+         */
+        public boolean next() throws ConcurrentModificationException {
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
+            position++;
+            while (bucketIndex < table.length) {
+                if (table[bucketIndex] != null && position < table[bucketIndex].size()) {
+                    current = table[bucketIndex].pairAt(position);
+                    return true;
                 }
-                data[hash].put(pair);
+                bucketIndex++;
+                position = 0;
+            }
+            current = null;
+            return false;
+        }
+
+        /**
+         * Gets the key of the current pair
+         * @throws NoSuchElementException if the cursor doesn't point to a pair
+         */
+        public String key() throws NoSuchElementException {
+            if (current == null) {
+                throw new NoSuchElementException();
+            }
+            return current.getKey();
+        }
+
+        /**
+         * Gets the value of the current pair
+         * @throws NoSuchElementException if the cursor doesn't point to a pair
+         */
+        public String value() throws NoSuchElementException {
+            if (current == null) {
+                throw new NoSuchElementException();
+            }
+            return current.getValue();
+        }
+    }
+
+    /** Checks if the table is being resized incrementally */
+    boolean isResizing() {
+        return oldData != null;
+    }
+
+    /** Changes the capacity: at once or incrementally, depending on the mode */
+    private void resize(int newCapacity) {
+        modCount++;
+        if (!incrementalResize) {
+            rehash(newCapacity);
+            return;
+        }
+        migrate(Integer.MAX_VALUE);
+        oldData = data;
+        migrated = 0;
+        capacity = newCapacity;
+        threshold = thresholdFor(capacity);
+        data = new Bucket[capacity];
+    }
+
+    /**
+     * Moves buckets of the old table into the new one, if a resize is in progress
+     * @param count - maximal number of buckets to move
+     */
+    private void migrate(int count) {
+        while (oldData != null && count > 0) {
+            if (oldData[migrated] != null) {
+                moveBucket(oldData[migrated]);
+                oldData[migrated] = null;
+            }
+            migrated++;
+            count--;
+            if (migrated == oldData.length) {
+                oldData = null;
+                migrated = 0;
+            }
+        }
+    }
+
+    /** Puts all Pairs of the bucket into the buckets of data */
+    private void moveBucket(Bucket bucket) {
+        for (Pair pair : bucket) {
+            putIntoBucket(data, pair);
+        }
+    }
+
+    /** Turns the tree back into a list */
+    private static List toList(Bucket bucket) {
+        List list = new List();
+        for (Pair pair : bucket) {
+            list.put(pair);
+        }
+        return list;
+    }
+
+    /**
+     * Rebuilds hashtable, increases the capacity (x2)
+     * if the number of stored elements is too big.
+     * Uses hashes cached in the Pairs, so keys are not rehashed
+     */
+    protected void rebuild() {
+        rehash(capacity * 2);
+    }
+
+    /** Moves all Pairs at once into the table with given capacity */
+    private void rehash(int newCapacity) {
+        modCount++;
+        migrate(Integer.MAX_VALUE);
+        Bucket[] previousData = data;
+        capacity = newCapacity;
+        threshold = thresholdFor(capacity);
+        data = new Bucket[capacity];
+        for (Bucket bucket : previousData) {
+            if (bucket != null) {
+                moveBucket(bucket);
             }
         }
     }
@@ -0,0 +1,19 @@
+package me.sieric.hashtable;
+
+/**
+ * A modifiable collection of String key/value pairs.
+ * Implemented by {@link HashTable} (separate chaining) and
+ * {@link OpenAddressingHashTable} (linear probing over flat arrays),
+ * so the storage layout is chosen by the constructor being called
+ */
+public interface HashTableInterface extends ReadableHashTable {
+
+    /** {@link HashTable#put(String, String)} */
+    String put(String key, String value);
+
+    /** {@link HashTable#remove(String)} */
+    String remove(String key);
+
+    /** {@link HashTable#clear()} */
+    void clear();
+}
@@ -1,12 +1,20 @@
 package me.sieric.hashtable;
 
 import java.util.Iterator;
+import java.util.function.Consumer;
 
 /** Linked list to store a pairs of key and value */
-public class List implements Iterable<Pair> {
+public class List implements Bucket {
 
     private Node head = null;
     private Node tail = null;
+    private int size = 0;
+
+    /** Gets number of Pairs in the List */
+    @Override
+    public int size() {
+        return size;
+    }
 
     /** Get the List Iterator */
     public Iterator<Pair> iterator() {
@@ -15,6 +23,7 @@ public class List implements Iterable<Pair> {
 
     /** Puts a new Pair into the end of the List */
     public void put(Pair data) {
+        size++;
         if (head == null) {
             head = new Node(data);
             tail = head;
@@ -24,33 +33,108 @@ public class List implements Iterable<Pair> {
         }
     }
 
+    /**
+     * Puts a Pair into List, replacing the Pair with the same key, if there is one.
+     * Walks through the List only once
+     * @return the replaced Pair or null if there was no Pair with such key
+     */
+    @Override
+    public Pair putOrReplace(Pair data) {
+        Node node = head;
+        while (node != null) {
+            if (node.data.getHash() == data.getHash() && node.data.getKey().equals(data.getKey())) {
+                Pair oldData = node.data;
+                node.data = data;
+                return oldData;
+            }
+            node = node.next;
+        }
+        put(data);
+        return null;
+    }
+
     /**
      * Gets a Pair from List by key
      * @return the Pair with given key or null if there's no such Pair
      */
     public Pair get(String key) {
-        ListIterator it = new ListIterator();
-        while (it.hasNext()) {
-            Pair data = it.next();
-            if (data.getKey().equals(key)) {
-                return data;
+        return get(key, HashTable.spread(key.hashCode()));
+    }
+
+    /**
+     * Gets a Pair from List by key with known hash.
+     * Keys are compared only if the cached hashes are equal.
+     * Walks the nodes directly, so nothing is allocated
+     * @return the Pair with given key or null if there's no such Pair
+     */
+    @Override
+    public Pair get(String key, int hash) {
+        Node node = head;
+        while (node != null) {
+            if (node.data.getHash() == hash && node.data.getKey().equals(key)) {
+                return node.data;
             }
+            node = node.next;
         }
         return null;
     }
 
+    /**
+     * Gets a Pair by its position in the List
+     * @return the Pair at given position
+     * @throws IndexOutOfBoundsException if there's no such position
+     */
+    @Override
+    public Pair pairAt(int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+        Node node = head;
+        for (int i = 0; i < index; i++) {
+            node = node.next;
+        }
+        return node.data;
+    }
+
+    /** Performs the action for every Pair without allocating an iterator */
+    @Override
+    public void forEach(Consumer<? super Pair> action) {
+        for (Node node = head; node != null; node = node.next) {
+            action.accept(node.data);
+        }
+    }
+
     /**
      * Removes a Pair from List by key
      * @return the Pair with given key or null if there's no such Pair
      */
     public Pair remove(String key) {
-        ListIterator it = new ListIterator();
-        while (it.hasNext()) {
-            Pair data = it.next();
-            if (data.getKey().equals(key)) {
-                it.remove();
-                return data;
+        return remove(key, HashTable.spread(key.hashCode()));
+    }
+
+    /**
+     * Removes a Pair from List by key with known hash
+     * @return the Pair with given key or null if there's no such Pair
+     */
+    @Override
+    public Pair remove(String key, int hash) {
+        Node previous = null;
+        Node node = head;
+        while (node != null) {
+            if (node.data.getHash() == hash && node.data.getKey().equals(key)) {
+                if (previous == null) {
+                    head = node.next;
+                } else {
+                    previous.next = node.next;
+                }
+                if (node == tail) {
+                    tail = previous;
+                }
+                size--;
+                return node.data;
             }
+            previous = node;
+            node = node.next;
         }
         return null;
     }
@@ -59,6 +143,7 @@ public class List implements Iterable<Pair> {
     public void clear() {
         head = null;
         tail = null;
+        size = 0;
     }
 
     /** Nodes, to store pairs in the List */
@@ -115,6 +200,11 @@ public class List implements Iterable<Pair> {
             } else {
                 previousOfPrevious.next = current;
             }
+            if (current == null) {
+                List.this.tail = previousOfPrevious;
+            }
+            List.this.size--;
+            previous = previousOfPrevious;
         }
     }
 }
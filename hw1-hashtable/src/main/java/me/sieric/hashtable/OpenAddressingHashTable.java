@@ -0,0 +1,183 @@
+package me.sieric.hashtable;
+
+/**
+ * Represents a collection of key/value pairs
+ * that are organized based on hash code of the key.
+ * Uses open addressing with linear probing: keys, values and hashes
+ * are stored in parallel arrays, so there are no per-entry objects
+ */
+public class OpenAddressingHashTable implements HashTableInterface {
+
+    private static final int INITIAL_CAPACITY = 2;
+
+    private int capacity = INITIAL_CAPACITY;
+    private int size = 0;
+
+    /** Stored keys, null marks an empty slot */
+    private String[] keys = new String[capacity];
+
+    /** Values stored in the same slots as their keys */
+    private String[] values = new String[capacity];
+
+    /** Cached hashes of the stored keys */
+    private int[] hashes = new int[capacity];
+
+    /**
+     * Gets string's hash
+     * @return spread hash of given string key
+     * @throws IllegalArgumentException if string is null
+     */
+    protected int getHash(String key) throws IllegalArgumentException {
+        if (key == null) {
+            throw new IllegalArgumentException("Key must be not null");
+        }
+        return HashTable.spread(key.hashCode());
+    }
+
+    /**
+     * Finds the slot of the key
+     * @return index of the slot with given key or of the empty slot where the probing stopped
+     */
+    private int findSlot(String key, int hash) {
+        int mask = capacity - 1;
+        int slot = hash & mask;
+        while (keys[slot] != null && (hashes[slot] != hash || !keys[slot].equals(key))) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Gets number of elements stored in HashTable
+     * @return number of keys in HashTable
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if Hashtable contains a string
+     * @return true if HashTable contains a key or false otherwise
+     * @throws IllegalArgumentException if string is null
+     */
+    @Override
+    public boolean contains(String key) throws IllegalArgumentException {
+        return keys[findSlot(key, getHash(key))] != null;
+    }
+
+    /**
+     * Gets a value from HashTable by key
+     * @return value by key or null if there's no such key in HashTable
+     * @throws IllegalArgumentException if string is null
+     */
+    @Override
+    public String get(String key) throws IllegalArgumentException {
+        return values[findSlot(key, getHash(key))];
+    }
+
+    /**
+     * Puts a value by key into HashTable
+     * If hashtable previously contained the mapping for key, the old value is replaced (and returned)
+     * @return previous value by key or null if there's no such key in HashTable
+     * @throws IllegalArgumentException if string is null
+     */
+    @Override
+    public String put(String key, String value) throws IllegalArgumentException {
+        if (value == null) {
+            throw new IllegalArgumentException("Value must be not null");
+        }
+        int hash = getHash(key);
+        int slot = findSlot(key, hash);
+        if (keys[slot] != null) {
+            String oldValue = values[slot];
+            values[slot] = value;
+            return oldValue;
+        }
+        size++;
+        if (2 * size > capacity) {
+            rebuild();
+            slot = findSlot(key, hash);
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        hashes[slot] = hash;
+        return null;
+    }
+
+    /**
+     * Removes a key with value from HashTable
+     * @return value by key or null if there's no such key in HashTable
+     * @throws IllegalArgumentException if string is null
+     */
+    @Override
+    public String remove(String key) throws IllegalArgumentException {
+        int slot = findSlot(key, getHash(key));
+        if (keys[slot] == null) {
+            return null;
+        }
+        String oldValue = values[slot];
+        size--;
+        shiftBack(slot);
+        return oldValue;
+    }
+
+    /** Clears HashTable */
+    @Override
+    public void clear() {
+        capacity = INITIAL_CAPACITY;
+        size = 0;
+        keys = new String[capacity];
+        values = new String[capacity];
+        hashes = new int[capacity];
+    }
+
+    /**
+     * Empties the slot, moving back the entries of the probe sequence after it,
+     * so that lookups never need tombstones
+     */
+    private void shiftBack(int slot) {
+        int mask = capacity - 1;
+        int next = (slot + 1) & mask;
+        while (keys[next] != null) {
+            int home = hashes[next] & mask;
+            // the entry can be moved only if its home slot is not in the cyclic interval (slot, next]
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                values[slot] = values[next];
+                hashes[slot] = hashes[next];
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[slot] = null;
+        values[slot] = null;
+    }
+
+    /**
+     * Rebuilds hashtable, increases the capacity (x2)
+     * if the number of stored elements is too big
+     */
+    protected void rebuild() {
+        String[] oldKeys = keys;
+        String[] oldValues = values;
+        int[] oldHashes = hashes;
+        capacity *= 2;
+        keys = new String[capacity];
+        values = new String[capacity];
+        hashes = new int[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == null) {
+                continue;
+            }
+            int slot = oldHashes[i] & mask;
+            while (keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+            hashes[slot] = oldHashes[i];
+        }
+    }
+}
@@ -6,9 +6,17 @@ public class Pair {
     private String key;
     private String value;
 
+    /** Spread hash of the key, cached to avoid rehashing on rebuild */
+    private int hash;
+
     public Pair(String key, String value) {
+        this(key, value, HashTable.spread(key.hashCode()));
+    }
+
+    Pair(String key, String value, int hash) {
         this.key = key;
         this.value = value;
+        this.hash = hash;
     }
 
     public String getKey() {
@@ -18,4 +26,8 @@ public class Pair {
     public String getValue() {
         return value;
     }
+
+    public int getHash() {
+        return hash;
+    }
 }
@@ -0,0 +1,18 @@
+package me.sieric.hashtable;
+
+/**
+ * Lookups in a collection of String key/value pairs.
+ * Implemented by all the tables, the read-only {@link SnapshotHashTable} implements only it,
+ * the modifiable ones implement {@link HashTableInterface}
+ */
+public interface ReadableHashTable {
+
+    /** {@link HashTable#size()} */
+    int size();
+
+    /** {@link HashTable#contains(String)} */
+    boolean contains(String key);
+
+    /** {@link HashTable#get(String)} */
+    String get(String key);
+}
@@ -0,0 +1,136 @@
+package me.sieric.hashtable;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only HashTable, which serves lookups straight from a memory-mapped snapshot
+ * written by {@link HashTable#writeSnapshot(Path)}, so nothing is inserted on loading.
+ * Snapshot format (all numbers are big-endian ints):
+ * magic, version, capacity, size,
+ * capacity + 1 offsets of the lists (the list i takes bytes from offset i to offset i + 1),
+ * then the lists: for every pair its hash, key length, key, value length and value,
+ * the strings are encoded by {@link StringCodec}
+ */
+public class SnapshotHashTable implements ReadableHashTable {
+
+    static final int MAGIC = 0x48546231;
+    static final int VERSION = 2;
+
+    /** Size of magic, version, capacity and size */
+    static final int HEADER_SIZE = 4 * Integer.BYTES;
+
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final int size;
+
+    private SnapshotHashTable(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a HashTable snapshot");
+        }
+        if (buffer.getInt(Integer.BYTES) != VERSION) {
+            throw new IOException("Unsupported snapshot version " + buffer.getInt(Integer.BYTES));
+        }
+        capacity = buffer.getInt(2 * Integer.BYTES);
+        size = buffer.getInt(3 * Integer.BYTES);
+        if (capacity <= 0 || (capacity & (capacity - 1)) != 0
+                || HEADER_SIZE + (capacity + 1L) * Integer.BYTES > buffer.limit()) {
+            throw new IOException("Corrupted snapshot");
+        }
+    }
+
+    /**
+     * Maps the snapshot file into memory
+     * @throws IOException if reading the file failed or it's not a snapshot
+     */
+    public static SnapshotHashTable open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot is too large");
+            }
+            return new SnapshotHashTable(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Gets string's hash
+     * @return spread hash of given string key
+     * @throws IllegalArgumentException if string is null
+     */
+    protected int getHash(String key) throws IllegalArgumentException {
+        if (key == null) {
+            throw new IllegalArgumentException("Key must be not null");
+        }
+        return HashTable.spread(key.hashCode());
+    }
+
+    /**
+     * Finds the pair with the key in the snapshot
+     * @return offset of the value length of the pair or -1 if there's no such key
+     */
+    private int find(String key) {
+        int hash = getHash(key);
+        byte[] keyBytes = StringCodec.encode(key);
+        int index = hash & (capacity - 1);
+        int offset = buffer.getInt(HEADER_SIZE + index * Integer.BYTES);
+        int end = buffer.getInt(HEADER_SIZE + (index + 1) * Integer.BYTES);
+        while (offset < end) {
+            int keyLength = buffer.getInt(offset + Integer.BYTES);
+            int valueOffset = offset + 2 * Integer.BYTES + keyLength;
+            if (buffer.getInt(offset) == hash && keyEquals(offset + 2 * Integer.BYTES, keyLength, keyBytes)) {
+                return valueOffset;
+            }
+            offset = valueOffset + Integer.BYTES + buffer.getInt(valueOffset);
+        }
+        return -1;
+    }
+
+    private boolean keyEquals(int offset, int length, byte[] key) {
+        if (length != key.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(offset + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets number of elements stored in HashTable
+     * @return number of keys in HashTable
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if Hashtable contains a string
+     * @return true if HashTable contains a key or false otherwise
+     * @throws IllegalArgumentException if string is null
+     */
+    @Override
+    public boolean contains(String key) throws IllegalArgumentException {
+        return find(key) != -1;
+    }
+
+    /**
+     * Gets a value from HashTable by key
+     * @return value by key or null if there's no such key in HashTable
+     * @throws IllegalArgumentException if string is null
+     */
+    @Override
+    public String get(String key) throws IllegalArgumentException {
+        int offset = find(key);
+        if (offset == -1) {
+            return null;
+        }
+        return StringCodec.decode(buffer, offset + Integer.BYTES, buffer.getInt(offset));
+    }
+}
@@ -0,0 +1,62 @@
+package me.sieric.hashtable;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Byte encoding of Strings, which keeps any Java string exactly.
+ * Every UTF-16 char is encoded on its own as UTF-8 encodes a code point of the same value (CESU-8),
+ * so unpaired surrogates, which UTF-8 would replace by '?', are kept too.
+ * Strings without surrogates are encoded exactly as in UTF-8
+ */
+final class StringCodec {
+
+    private StringCodec() {
+    }
+
+    /** Encodes the string into bytes */
+    static byte[] encode(String string) {
+        int length = 0;
+        for (int i = 0; i < string.length(); i++) {
+            length += encodedLength(string.charAt(i));
+        }
+        byte[] bytes = new byte[length];
+        int position = 0;
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            if (c < 0x80) {
+                bytes[position++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[position++] = (byte) (0xC0 | c >> 6);
+                bytes[position++] = (byte) (0x80 | c & 0x3F);
+            } else {
+                bytes[position++] = (byte) (0xE0 | c >> 12);
+                bytes[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                bytes[position++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        return bytes;
+    }
+
+    private static int encodedLength(char c) {
+        return c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+    }
+
+    /** Decodes the string of given length in bytes from the buffer at given offset */
+    static String decode(ByteBuffer buffer, int offset, int length) {
+        char[] chars = new char[length];
+        int count = 0;
+        int end = offset + length;
+        while (offset < end) {
+            int b = buffer.get(offset++) & 0xFF;
+            if (b < 0x80) {
+                chars[count++] = (char) b;
+            } else if (b < 0xE0) {
+                chars[count++] = (char) ((b & 0x1F) << 6 | buffer.get(offset++) & 0x3F);
+            } else {
+                int middle = buffer.get(offset++) & 0x3F;
+                chars[count++] = (char) ((b & 0x0F) << 12 | middle << 6 | buffer.get(offset++) & 0x3F);
+            }
+        }
+        return new String(chars, 0, count);
+    }
+}
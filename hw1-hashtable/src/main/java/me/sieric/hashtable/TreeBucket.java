@@ -0,0 +1,289 @@
+package me.sieric.hashtable;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Bucket for many Pairs with colliding hashes.
+ * AVL tree ordered by hash and then by key, so all the operations are logarithmic
+ */
+class TreeBucket implements Bucket {
+
+    private Node root = null;
+    private int size = 0;
+
+    /** The Pair replaced or removed by the last putOrReplace/remove */
+    private Pair lastFound;
+
+    /** Builds tree from the Pairs with different keys */
+    TreeBucket(Iterable<Pair> pairs) {
+        for (Pair pair : pairs) {
+            putOrReplace(pair);
+        }
+    }
+
+    /** Compares the key with known hash with the key of the Pair */
+    private static int compare(String key, int hash, Pair pair) {
+        if (hash != pair.getHash()) {
+            return Integer.compare(hash, pair.getHash());
+        }
+        return key.compareTo(pair.getKey());
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Pair get(String key, int hash) {
+        Node node = root;
+        while (node != null) {
+            int cmpResult = compare(key, hash, node.data);
+            if (cmpResult == 0) {
+                return node.data;
+            }
+            node = cmpResult < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    /**
+     * Gets a Pair by its position in the order of hashes and keys,
+     * using the sizes of the subtrees
+     * @return the Pair at given position
+     * @throws IndexOutOfBoundsException if there's no such position
+     */
+    @Override
+    public Pair pairAt(int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+        Node node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index == leftSize) {
+                return node.data;
+            }
+            if (index < leftSize) {
+                node = node.left;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /** Performs the action for every Pair in the order of hashes and keys without allocating an iterator */
+    @Override
+    public void forEach(Consumer<? super Pair> action) {
+        forEach(root, action);
+    }
+
+    private static void forEach(Node node, Consumer<? super Pair> action) {
+        while (node != null) {
+            forEach(node.left, action);
+            action.accept(node.data);
+            node = node.right;
+        }
+    }
+
+    @Override
+    public Pair putOrReplace(Pair data) {
+        lastFound = null;
+        root = put(root, data);
+        if (lastFound == null) {
+            size++;
+        }
+        return lastFound;
+    }
+
+    @Override
+    public Pair remove(String key, int hash) {
+        lastFound = null;
+        root = remove(root, key, hash);
+        if (lastFound != null) {
+            size--;
+        }
+        return lastFound;
+    }
+
+    /** Gets the height of the tree, which is at most 1.44 * log2(size + 2) */
+    int height() {
+        return height(root);
+    }
+
+    /** Gets the iterator over the Pairs in the order of hashes and keys */
+    @Override
+    public Iterator<Pair> iterator() {
+        return new TreeIterator();
+    }
+
+    /**
+     * Puts the Pair into the subtree
+     * @return the new root of the subtree
+     */
+    private Node put(Node node, Pair data) {
+        if (node == null) {
+            return new Node(data);
+        }
+        int cmpResult = compare(data.getKey(), data.getHash(), node.data);
+        if (cmpResult == 0) {
+            lastFound = node.data;
+            node.data = data;
+            return node;
+        }
+        if (cmpResult < 0) {
+            node.left = put(node.left, data);
+        } else {
+            node.right = put(node.right, data);
+        }
+        return balance(node);
+    }
+
+    /**
+     * Removes the Pair with the key from the subtree
+     * @return the new root of the subtree
+     */
+    private Node remove(Node node, String key, int hash) {
+        if (node == null) {
+            return null;
+        }
+        int cmpResult = compare(key, hash, node.data);
+        if (cmpResult < 0) {
+            node.left = remove(node.left, key, hash);
+        } else if (cmpResult > 0) {
+            node.right = remove(node.right, key, hash);
+        } else {
+            lastFound = node.data;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node next = node.right;
+            while (next.left != null) {
+                next = next.left;
+            }
+            node.data = next.data;
+            node.right = removeFirst(node.right);
+        }
+        return balance(node);
+    }
+
+    /**
+     * Removes the leftmost node of the subtree
+     * @return the new root of the subtree
+     */
+    private Node removeFirst(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeFirst(node.left);
+        return balance(node);
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /** Updates the height and the size of the subtree of the node */
+    private static void updateHeight(Node node) {
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        updateHeight(node);
+        updateHeight(left);
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        updateHeight(node);
+        updateHeight(right);
+        return right;
+    }
+
+    /**
+     * Restores the balance of the node, if heights of its subtrees differ by 2
+     * @return the new root of the subtree
+     */
+    private static Node balance(Node node) {
+        updateHeight(node);
+        int difference = height(node.left) - height(node.right);
+        if (difference > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (difference < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    /** Nodes of the tree */
+    private static class Node {
+        private Pair data;
+        private Node left = null;
+        private Node right = null;
+        private int height = 1;
+
+        /** Number of nodes in the subtree */
+        private int size = 1;
+
+        private Node(Pair data) {
+            this.data = data;
+        }
+    }
+
+    /** In-order iterator, invalidated after any modification of the tree */
+    private class TreeIterator implements Iterator<Pair> {
+
+        private final ArrayDeque<Node> stack = new ArrayDeque<>();
+
+        private TreeIterator() {
+            pushLeft(root);
+        }
+
+        private void pushLeft(Node node) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public Pair next() throws NoSuchElementException {
+            if (stack.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            Node node = stack.pop();
+            pushLeft(node.right);
+            return node.data;
+        }
+    }
+}
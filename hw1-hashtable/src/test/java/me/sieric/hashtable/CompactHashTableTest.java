@@ -0,0 +1,117 @@
+package me.sieric.hashtable;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactHashTableTest {
+
+    private CompactHashTable ht;
+
+    @BeforeEach
+    void setUp() {
+        ht = new CompactHashTable();
+    }
+
+    void fill() {
+        String s = "a";
+        for (int i = 0; i < 5; i++) {
+            ht.put(s, Integer.toString(i + 1));
+            s += "a";
+        }
+    }
+
+    @Test
+    void testPutAndGet() {
+        fill();
+        assertEquals(ht.size(), 5);
+        assertEquals(ht.get("aaa"), "3");
+        assertNull(ht.get("b"));
+        assertTrue(ht.contains("a"));
+        assertFalse(ht.contains("b"));
+        assertEquals(ht.put("a", "42"), "1");
+        assertEquals(ht.get("a"), "42");
+        assertEquals(ht.size(), 5);
+    }
+
+    @Test
+    void testUnpairedSurrogates() {
+        assertNull(ht.put("k", "a\uD800b"));
+        assertNull(ht.put("\uDC00", "1"));
+        assertEquals(ht.get("k"), "a\uD800b");
+        assertEquals(ht.get("\uDC00"), "1");
+        assertFalse(ht.contains("?"));
+        assertFalse(ht.contains("\uDC01"));
+        assertEquals(ht.remove("k"), "a\uD800b");
+    }
+
+    @Test
+    void testRemove() {
+        fill();
+        assertEquals(ht.remove("a"), "1");
+        assertNull(ht.remove("a"));
+        assertFalse(ht.contains("a"));
+        assertEquals(ht.get("aa"), "2");
+        assertEquals(ht.size(), 4);
+    }
+
+    @Test
+    void testClear() {
+        fill();
+        ht.clear();
+        assertEquals(ht.size(), 0);
+        assertNull(ht.get("a"));
+        assertEquals(ht.arenaUsed(), 0);
+    }
+
+    @Test
+    void testNotAsciiStrings() {
+        ht.put("Саша", "топ");
+        ht.put("❤️", "");
+        assertEquals(ht.get("Саша"), "топ");
+        assertEquals(ht.get("❤️"), "");
+        assertNull(ht.get("Сашa"));
+    }
+
+    @Test
+    void testArenaIsCompacted() {
+        for (int i = 0; i < 100000; i++) {
+            ht.put(Integer.toString(i % 10), Integer.toString(i));
+        }
+        assertEquals(ht.size(), 10);
+        assertEquals(ht.get("9"), "99999");
+        assertTrue(ht.arenaUsed() < 1000);
+    }
+
+    @Test
+    void testRandomOperationsInDirectArena() {
+        CompactHashTable direct = new CompactHashTable(true);
+        HashMap<String, String> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            String key = Integer.toString(random.nextInt(1000));
+            if (random.nextBoolean()) {
+                assertEquals(expected.put(key, Integer.toString(i)), direct.put(key, Integer.toString(i)));
+            } else {
+                assertEquals(expected.remove(key), direct.remove(key));
+            }
+            assertEquals(expected.size(), direct.size());
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(expected.get(Integer.toString(i)), direct.get(Integer.toString(i)));
+        }
+    }
+
+    @Test
+    void testNullKey() {
+        assertThrows(IllegalArgumentException.class, () -> ht.contains(null));
+        assertThrows(IllegalArgumentException.class, () -> ht.get(null));
+        assertThrows(IllegalArgumentException.class, () -> ht.remove(null));
+        assertThrows(IllegalArgumentException.class, () -> ht.put(null, "kek"));
+        assertThrows(IllegalArgumentException.class, () -> ht.put("kek", null));
+    }
+}
@@ -0,0 +1,175 @@
+package me.sieric.hashtable;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentHashTableTest {
+
+    private static final int THREADS = 8;
+
+    private ConcurrentHashTable ht;
+
+    @BeforeEach
+    void setUp() {
+        ht = new ConcurrentHashTable();
+    }
+
+    void fill() {
+        String s = "a";
+        for (int i = 0; i < 5; i++) {
+            ht.put(s, Integer.toString(i + 1));
+            s += "a";
+        }
+    }
+
+    /** Runs the task in THREADS threads started at the same moment */
+    private void runConcurrently(ThreadTask task) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        ArrayList<Thread> threads = new ArrayList<>();
+        ArrayList<Throwable> errors = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            int number = i;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    task.run(number);
+                } catch (Throwable e) {
+                    synchronized (errors) {
+                        errors.add(e);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(errors.isEmpty(), errors.toString());
+    }
+
+    private interface ThreadTask {
+        void run(int number) throws Exception;
+    }
+
+    @Test
+    void testPutAndGet() {
+        fill();
+        assertEquals(ht.size(), 5);
+        assertEquals(ht.get("aaa"), "3");
+        assertNull(ht.get("b"));
+        assertTrue(ht.contains("a"));
+        assertFalse(ht.contains("b"));
+        assertEquals(ht.put("a", "42"), "1");
+        assertEquals(ht.get("a"), "42");
+        assertEquals(ht.size(), 5);
+    }
+
+    @Test
+    void testRemove() {
+        fill();
+        assertEquals(ht.remove("aa"), "2");
+        assertNull(ht.remove("aa"));
+        assertEquals(ht.size(), 4);
+        assertEquals(ht.get("a"), "1");
+        assertEquals(ht.get("aaa"), "3");
+    }
+
+    @Test
+    void testClear() {
+        fill();
+        ht.clear();
+        assertEquals(ht.size(), 0);
+        assertNull(ht.get("a"));
+    }
+
+    @Test
+    void testPutIfAbsent() {
+        assertNull(ht.putIfAbsent("a", "1"));
+        assertEquals(ht.putIfAbsent("a", "2"), "1");
+        assertEquals(ht.get("a"), "1");
+    }
+
+    @Test
+    void testComputeIfAbsent() {
+        assertEquals(ht.computeIfAbsent("a", key -> key + "!"), "a!");
+        assertEquals(ht.computeIfAbsent("a", key -> "kek"), "a!");
+        assertNull(ht.computeIfAbsent("b", key -> null));
+        assertFalse(ht.contains("b"));
+    }
+
+    @Test
+    void testSingleSegment() {
+        ConcurrentHashTable single = new ConcurrentHashTable(1);
+        for (int i = 0; i < 1000; i++) {
+            single.put(Integer.toString(i), Integer.toString(i));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(single.get(Integer.toString(i)), Integer.toString(i));
+        }
+    }
+
+    @Test
+    void testConcurrentPuts() throws InterruptedException {
+        runConcurrently(number -> {
+            for (int i = 0; i < 10000; i++) {
+                ht.put(number + ":" + i, Integer.toString(i));
+            }
+        });
+        assertEquals(ht.size(), THREADS * 10000);
+        for (int number = 0; number < THREADS; number++) {
+            for (int i = 0; i < 10000; i++) {
+                assertEquals(ht.get(number + ":" + i), Integer.toString(i));
+            }
+        }
+    }
+
+    @Test
+    void testReadsDuringWrites() throws InterruptedException {
+        for (int i = 0; i < 1000; i++) {
+            ht.put("stable" + i, Integer.toString(i));
+        }
+        runConcurrently(number -> {
+            for (int i = 0; i < 10000; i++) {
+                if (number % 2 == 0) {
+                    ht.put(number + ":" + i, "value");
+                    ht.remove(number + ":" + i);
+                } else {
+                    assertEquals(ht.get("stable" + i % 1000), Integer.toString(i % 1000));
+                }
+            }
+        });
+        assertEquals(ht.size(), 1000);
+    }
+
+    @Test
+    void testConcurrentComputeIfAbsent() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        runConcurrently(number -> {
+            for (int i = 0; i < 1000; i++) {
+                ht.computeIfAbsent(Integer.toString(i), key -> {
+                    calls.incrementAndGet();
+                    return key;
+                });
+            }
+        });
+        assertEquals(calls.get(), 1000);
+        assertEquals(ht.size(), 1000);
+    }
+
+    @Test
+    void testNullKey() {
+        assertThrows(IllegalArgumentException.class, () -> ht.contains(null));
+        assertThrows(IllegalArgumentException.class, () -> ht.get(null));
+        assertThrows(IllegalArgumentException.class, () -> ht.put(null, "kek"));
+        assertThrows(IllegalArgumentException.class, () -> ht.putIfAbsent("kek", null));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentHashTable(0));
+    }
+}
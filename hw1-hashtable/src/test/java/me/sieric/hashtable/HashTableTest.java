@@ -3,7 +3,15 @@ package me.sieric.hashtable;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 class HashTableTest {
 
@@ -111,6 +119,305 @@ class HashTableTest {
         }
     }
 
+    @Test
+    void testKeyWithMinValueHash() {
+        assertEquals("polygenelubricants".hashCode(), Integer.MIN_VALUE);
+        fill();
+        ht.put("polygenelubricants", "42");
+        assertEquals(ht.get("polygenelubricants"), "42");
+        assertEquals(ht.remove("polygenelubricants"), "42");
+    }
+
+    @Test
+    void testGetAfterRebuilds() {
+        for (int i = 0; i < 1000; i++) {
+            ht.put(Integer.toString(i), Integer.toString(i * i));
+        }
+        assertEquals(ht.size(), 1000);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(ht.get(Integer.toString(i)), Integer.toString(i * i));
+        }
+    }
+
+    @Test
+    void testIncrementalResize() {
+        HashTable incremental = new HashTable(true);
+        boolean wasResizing = false;
+        for (int i = 0; i < 1000; i++) {
+            incremental.put(Integer.toString(i), Integer.toString(i * i));
+            wasResizing |= incremental.isResizing();
+            assertEquals(incremental.get("0"), "0");
+        }
+        assertTrue(wasResizing);
+        assertEquals(incremental.size(), 1000);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(incremental.get(Integer.toString(i)), Integer.toString(i * i));
+        }
+        assertFalse(incremental.isResizing());
+    }
+
+    @Test
+    void testRandomOperationsWithIncrementalResize() {
+        HashTable incremental = new HashTable(true);
+        HashMap<String, String> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            String key = Integer.toString(random.nextInt(5000));
+            if (random.nextInt(3) != 0) {
+                assertEquals(expected.put(key, Integer.toString(i)), incremental.put(key, Integer.toString(i)));
+            } else {
+                assertEquals(expected.remove(key), incremental.remove(key));
+            }
+            assertEquals(expected.size(), incremental.size());
+        }
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(expected.get(Integer.toString(i)), incremental.get(Integer.toString(i)));
+        }
+    }
+
+    @Test
+    void testExpectedSize() {
+        HashTable presized = new HashTable(1000, 0.75f);
+        int capacity = presized.capacity();
+        assertTrue(capacity * 0.75 >= 1000);
+        for (int i = 0; i < 1000; i++) {
+            presized.put(Integer.toString(i), Integer.toString(i));
+        }
+        assertEquals(presized.capacity(), capacity);
+        for (int i = 1000; i <= capacity * 0.75; i++) {
+            presized.put(Integer.toString(i), Integer.toString(i));
+        }
+        assertEquals(presized.capacity(), capacity * 2);
+    }
+
+    @Test
+    void testWrongConstructorArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new HashTable(-1));
+        assertThrows(IllegalArgumentException.class, () -> new HashTable(10, 0));
+        assertThrows(IllegalArgumentException.class, () -> new HashTable(10, Float.NaN));
+    }
+
+    @Test
+    void testClearKeepsCapacity() {
+        for (int i = 0; i < 1000; i++) {
+            ht.put(Integer.toString(i), Integer.toString(i));
+        }
+        int capacity = ht.capacity();
+        ht.clear();
+        assertEquals(ht.capacity(), capacity);
+        assertNull(ht.get("1"));
+        ht.put("1", "42");
+        assertEquals(ht.get("1"), "42");
+    }
+
+    @Test
+    void testShrinkAfterRemoving() {
+        for (int i = 0; i < 1000; i++) {
+            ht.put(Integer.toString(i), Integer.toString(i));
+        }
+        int capacity = ht.capacity();
+        for (int i = 0; i < 990; i++) {
+            ht.remove(Integer.toString(i));
+        }
+        assertTrue(ht.capacity() < capacity);
+        for (int i = 990; i < 1000; i++) {
+            assertEquals(ht.get(Integer.toString(i)), Integer.toString(i));
+        }
+    }
+
+    @Test
+    void testNoShrinkBelowExpectedSize() {
+        HashTable presized = new HashTable(1000);
+        int capacity = presized.capacity();
+        for (int i = 0; i < 1000; i++) {
+            presized.put(Integer.toString(i), Integer.toString(i));
+        }
+        for (int i = 0; i < 1000; i++) {
+            presized.remove(Integer.toString(i));
+        }
+        assertEquals(presized.capacity(), capacity);
+    }
+
+    @Test
+    void testTrimToSize() {
+        for (int i = 0; i < 1000; i++) {
+            ht.put(Integer.toString(i), Integer.toString(i));
+        }
+        for (int i = 2; i < 1000; i++) {
+            ht.remove(Integer.toString(i));
+        }
+        ht.trimToSize();
+        assertEquals(ht.capacity(), 2);
+        assertEquals(ht.get("0"), "0");
+        assertEquals(ht.get("1"), "1");
+    }
+
+    @Test
+    void testTrimToSizeKeepsExpectedSize() {
+        HashTable presized = new HashTable(1000);
+        int capacity = presized.capacity();
+        for (int i = 0; i < 5000; i++) {
+            presized.put(Integer.toString(i), Integer.toString(i));
+        }
+        for (int i = 2; i < 5000; i++) {
+            presized.remove(Integer.toString(i));
+        }
+        presized.trimToSize();
+        assertEquals(presized.capacity(), capacity);
+        assertEquals(presized.get("0"), "0");
+        assertEquals(presized.get("1"), "1");
+    }
+
+    @Test
+    void testPutAll() {
+        String[] keys = new String[1000];
+        String[] values = new String[1000];
+        for (int i = 0; i < 1000; i++) {
+            keys[i] = Integer.toString(i % 500);
+            values[i] = Integer.toString(i);
+        }
+        ht.put("0", "kek");
+        ht.put("lol", "kek");
+        ht.putAll(keys, values);
+        assertEquals(ht.size(), 501);
+        assertEquals(ht.get("0"), "500");
+        assertEquals(ht.get("499"), "999");
+        assertEquals(ht.get("lol"), "kek");
+    }
+
+    @Test
+    void testPutAllResizesOnce() {
+        String[] keys = new String[1000];
+        for (int i = 0; i < 1000; i++) {
+            keys[i] = Integer.toString(i);
+        }
+        ht.putAll(keys, keys);
+        assertEquals(ht.capacity(), 1024);
+    }
+
+    @Test
+    void testPutAllWithWrongArguments() {
+        assertThrows(IllegalArgumentException.class, () -> ht.putAll(new String[1], new String[2]));
+        assertThrows(IllegalArgumentException.class, () -> ht.putAll(null, new String[0]));
+        assertThrows(IllegalArgumentException.class,
+                () -> ht.putAll(new String[] {"a", null}, new String[] {"1", "2"}));
+        assertFalse(ht.contains("a"));
+        assertThrows(IllegalArgumentException.class,
+                () -> ht.putAll(new String[] {"a", "b"}, new String[] {"1", null}));
+        assertEquals(ht.size(), 0);
+    }
+
+    @Test
+    void testGetAll() {
+        fill();
+        assertArrayEquals(ht.getAll(new String[] {"a", "b", "aaa"}), new String[] {"1", null, "3"});
+        assertArrayEquals(ht.getAll(new String[0]), new String[0]);
+        assertThrows(IllegalArgumentException.class, () -> ht.getAll(new String[] {null}));
+    }
+
+    @Test
+    void testManyCollidingKeys() {
+        ArrayList<String> keys = TreeBucketTest.collidingKeys(12);
+        for (String key : keys) {
+            ht.put(key, key);
+        }
+        assertEquals(ht.size(), keys.size());
+        for (String key : keys) {
+            assertEquals(ht.get(key), key);
+        }
+        for (int i = 0; i < keys.size(); i += 2) {
+            assertEquals(ht.remove(keys.get(i)), keys.get(i));
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(ht.contains(keys.get(i)), i % 2 == 1);
+        }
+        for (int i = 1; i < keys.size(); i += 2) {
+            assertEquals(ht.remove(keys.get(i)), keys.get(i));
+        }
+        assertEquals(ht.size(), 0);
+    }
+
+    @Test
+    void testForEach() {
+        fill();
+        HashMap<String, String> pairs = new HashMap<>();
+        ht.forEach(pairs::put);
+        assertEquals(pairs.size(), 5);
+        assertEquals(pairs.get("aaa"), "3");
+    }
+
+    @Test
+    void testCursor() {
+        HashTable incremental = new HashTable(true);
+        for (String key : TreeBucketTest.collidingKeys(5)) {
+            incremental.put(key, key);
+        }
+        for (int i = 0; i < 100; i++) {
+            incremental.put(Integer.toString(i), Integer.toString(i));
+        }
+        HashMap<String, String> pairs = new HashMap<>();
+        HashTable.Cursor cursor = incremental.entries();
+        assertThrows(NoSuchElementException.class, cursor::key);
+        while (cursor.next()) {
+            assertNull(pairs.put(cursor.key(), cursor.value()));
+        }
+        assertEquals(pairs.size(), 132);
+        assertEquals(pairs.get("42"), "42");
+        assertFalse(cursor.next());
+        assertThrows(NoSuchElementException.class, cursor::value);
+    }
+
+    @Test
+    void testCursorInvalidation() {
+        fill();
+        HashTable.Cursor cursor = ht.entries();
+        assertTrue(cursor.next());
+        ht.put("a", "42");
+        assertTrue(cursor.next());
+        ht.remove("a");
+        assertThrows(ConcurrentModificationException.class, cursor::next);
+    }
+
+    @Test
+    void testLookupsDoNotAllocate() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled());
+        String[] keys = new String[1000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = Integer.toString(i);
+            ht.put(keys[i], keys[i]);
+            keys[i].hashCode();
+        }
+        for (String key : TreeBucketTest.collidingKeys(5)) {
+            ht.put(key, key);
+            key.hashCode();
+        }
+        final int lookups = 1000000;
+        long threadId = Thread.currentThread().getId();
+        // the first round loads and compiles the code, which allocates by itself
+        lookUp(keys, lookups);
+        long before = bean.getThreadAllocatedBytes(threadId);
+        int found = lookUp(keys, lookups);
+        long allocated = bean.getThreadAllocatedBytes(threadId) - before;
+        assertTrue(found > 0);
+        // the cursor itself and the MXBean calls may allocate a few bytes, but not a byte per lookup
+        assertTrue(allocated < 1024, allocated + " bytes allocated");
+    }
+
+    private int lookUp(String[] keys, int lookups) {
+        int found = 0;
+        for (int i = 0; i < lookups; i++) {
+            found += ht.get(keys[i % keys.length]) == null ? 0 : 1;
+            found += ht.contains("Aa" + "BB" + "Aa" + "BB" + "Aa") ? 1 : 0;
+        }
+        HashTable.Cursor cursor = ht.entries();
+        while (cursor.next()) {
+            found += cursor.key().length();
+        }
+        return found;
+    }
+
     @Test
     void testNullKey() {
         assertThrows(IllegalArgumentException.class, () -> ht.contains(null));
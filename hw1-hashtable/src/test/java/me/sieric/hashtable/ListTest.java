@@ -54,6 +54,15 @@ class ListTest {
         assertEquals(list.get("sasha").getValue(), "top");
     }
 
+    @Test
+    void testPutOrReplace() {
+        fill();
+        assertEquals(list.putOrReplace(new Pair("aaa", "42")).getValue(), "3");
+        assertNull(list.putOrReplace(new Pair("sasha", "top")));
+        assertEquals(list.get("aaa").getValue(), "42");
+        assertEquals(list.get("sasha").getValue(), "top");
+    }
+
     @Test
     void testPutIntoEmptyList() {
         empty.put(new Pair("sasha", "top"));
@@ -84,6 +93,23 @@ class ListTest {
         assertNull(list.remove("kek"));
     }
 
+    @Test
+    void testPutAfterRemovingLast() {
+        fill();
+        list.remove("aaaaa");
+        list.put(new Pair("sasha", "top"));
+        assertEquals(list.get("sasha").getValue(), "top");
+    }
+
+    @Test
+    void testPairAt() {
+        fill();
+        assertEquals(list.pairAt(0).getKey(), "a");
+        assertEquals(list.pairAt(4).getKey(), "aaaaa");
+        assertThrows(IndexOutOfBoundsException.class, () -> list.pairAt(5));
+        assertEquals(list.size(), 5);
+    }
+
     @Test
     void testClear() {
         fill();
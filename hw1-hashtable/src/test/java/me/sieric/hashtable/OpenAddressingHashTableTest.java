@@ -0,0 +1,115 @@
+package me.sieric.hashtable;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenAddressingHashTableTest {
+
+    private OpenAddressingHashTable ht;
+
+    @BeforeEach
+    void setUp() {
+        ht = new OpenAddressingHashTable();
+    }
+
+    void fill() {
+        String s = "a";
+        for (int i = 0; i < 5; i++) {
+            ht.put(s, Integer.toString(i + 1));
+            s += "a";
+        }
+    }
+
+    @Test
+    void testSize() {
+        assertEquals(ht.size(), 0);
+        fill();
+        assertEquals(ht.size(), 5);
+    }
+
+    @Test
+    void testGet() {
+        fill();
+        assertNull(ht.get("b"));
+        String s = "a";
+        for (int i = 0; i < 5; i++) {
+            assertEquals(ht.get(s), Integer.toString(i + 1));
+            s += "a";
+        }
+    }
+
+    @Test
+    void testContains() {
+        fill();
+        assertTrue(ht.contains("a"));
+        assertFalse(ht.contains("b"));
+    }
+
+    @Test
+    void testGetEqualKeys() {
+        ht.put("a", "1");
+        assertEquals(ht.put("a", "42"), "1");
+        assertEquals(ht.get("a"), "42");
+        assertEquals(ht.size(), 1);
+    }
+
+    @Test
+    void testRemove() {
+        fill();
+        assertEquals(ht.remove("a"), "1");
+        assertNull(ht.remove("a"));
+        assertFalse(ht.contains("a"));
+        assertEquals(ht.get("aa"), "2");
+        assertEquals(ht.size(), 4);
+    }
+
+    @Test
+    void testClear() {
+        fill();
+        ht.clear();
+        assertEquals(ht.size(), 0);
+        assertNull(ht.get("a"));
+    }
+
+    @Test
+    void testCollidingKeys() {
+        // "Aa" and "BB" have equal hash codes
+        ht.put("Aa", "1");
+        ht.put("BB", "2");
+        assertEquals(ht.get("Aa"), "1");
+        assertEquals(ht.get("BB"), "2");
+        assertEquals(ht.remove("Aa"), "1");
+        assertEquals(ht.get("BB"), "2");
+    }
+
+    @Test
+    void testRandomOperations() {
+        HashMap<String, String> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            String key = Integer.toString(random.nextInt(1000));
+            if (random.nextBoolean()) {
+                assertEquals(expected.put(key, Integer.toString(i)), ht.put(key, Integer.toString(i)));
+            } else {
+                assertEquals(expected.remove(key), ht.remove(key));
+            }
+            assertEquals(expected.size(), ht.size());
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(expected.get(Integer.toString(i)), ht.get(Integer.toString(i)));
+        }
+    }
+
+    @Test
+    void testNullKey() {
+        assertThrows(IllegalArgumentException.class, () -> ht.contains(null));
+        assertThrows(IllegalArgumentException.class, () -> ht.get(null));
+        assertThrows(IllegalArgumentException.class, () -> ht.put(null, "kek"));
+        assertThrows(IllegalArgumentException.class, () -> ht.put("kek", null));
+    }
+}
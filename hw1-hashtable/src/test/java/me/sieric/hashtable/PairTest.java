@@ -17,4 +17,10 @@ class PairTest {
         Pair p = new Pair("Sanya", "top");
         assertEquals("top", p.getValue());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetHash() {
+        Pair p = new Pair("Sanya", "top");
+        assertEquals(HashTable.spread("Sanya".hashCode()), p.getHash());
+    }
+}
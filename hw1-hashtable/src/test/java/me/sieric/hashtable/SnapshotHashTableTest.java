@@ -0,0 +1,102 @@
+package me.sieric.hashtable;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotHashTableTest {
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempFile("hashtable", ".snapshot");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void testEmptySnapshot() throws IOException {
+        new HashTable().writeSnapshot(file);
+        SnapshotHashTable snapshot = SnapshotHashTable.open(file);
+        assertEquals(snapshot.size(), 0);
+        assertNull(snapshot.get("a"));
+    }
+
+    @Test
+    void testSnapshot() throws IOException {
+        HashTable ht = new HashTable(true);
+        for (int i = 0; i < 1000; i++) {
+            ht.put(Integer.toString(i), "значение " + i);
+        }
+        ht.put("Aa", "1");
+        ht.put("BB", "2");
+        ht.writeSnapshot(file);
+        SnapshotHashTable snapshot = SnapshotHashTable.open(file);
+        assertEquals(snapshot.size(), 1002);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(snapshot.get(Integer.toString(i)), "значение " + i);
+        }
+        assertEquals(snapshot.get("Aa"), "1");
+        assertEquals(snapshot.get("BB"), "2");
+        assertTrue(snapshot.contains("BB"));
+        assertFalse(snapshot.contains("kek"));
+        assertNull(snapshot.get("1000"));
+    }
+
+    @Test
+    void testSnapshotIsReadOnly() throws IOException {
+        new HashTable().writeSnapshot(file);
+        ReadableHashTable snapshot = SnapshotHashTable.open(file);
+        assertFalse(snapshot instanceof HashTableInterface);
+        assertThrows(IllegalArgumentException.class, () -> snapshot.get(null));
+    }
+
+    @Test
+    void testUnpairedSurrogates() throws IOException {
+        HashTable ht = new HashTable();
+        ht.put("k", "a\uD800b");
+        ht.put("\uDC00", "1");
+        ht.writeSnapshot(file);
+        SnapshotHashTable snapshot = SnapshotHashTable.open(file);
+        assertEquals(snapshot.get("k"), "a\uD800b");
+        assertEquals(snapshot.get("\uDC00"), "1");
+        assertFalse(snapshot.contains("?"));
+    }
+
+    @Test
+    void testRewriteSnapshot() throws IOException {
+        HashTable ht = new HashTable();
+        ht.put("a", "1");
+        ht.writeSnapshot(file);
+        SnapshotHashTable oldSnapshot = SnapshotHashTable.open(file);
+        ht.put("a", "2");
+        ht.put("b", "3");
+        ht.writeSnapshot(file);
+        assertEquals(oldSnapshot.get("a"), "1");
+        assertNull(oldSnapshot.get("b"));
+        SnapshotHashTable snapshot = SnapshotHashTable.open(file);
+        assertEquals(snapshot.get("a"), "2");
+        assertEquals(snapshot.get("b"), "3");
+        try (Stream<Path> files = Files.list(file.getParent())) {
+            assertEquals(files.filter(f -> f.getFileName().toString().startsWith(file.getFileName().toString()))
+                    .count(), 1);
+        }
+    }
+
+    @Test
+    void testNotSnapshot() throws IOException {
+        Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+        assertThrows(IOException.class, () -> SnapshotHashTable.open(file));
+    }
+}
@@ -0,0 +1,45 @@
+package me.sieric.hashtable;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringCodecTest {
+
+    private static String roundTrip(String string) {
+        byte[] bytes = StringCodec.encode(string);
+        return StringCodec.decode(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+
+    @Test
+    void testAsciiIsUtf8() {
+        assertArrayEquals(StringCodec.encode("Sanya top"), "Sanya top".getBytes(StandardCharsets.UTF_8));
+        assertArrayEquals(StringCodec.encode("Саня топ"), "Саня топ".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testRoundTrip() {
+        assertEquals(roundTrip(""), "");
+        assertEquals(roundTrip("Sanya top"), "Sanya top");
+        assertEquals(roundTrip("Саня топ ❤️"), "Саня топ ❤️");
+        assertEquals(roundTrip("\u0000\u007F\u0080߿ࠀ￿"), "\u0000\u007F\u0080߿ࠀ￿");
+        assertEquals(roundTrip("😀"), "😀");
+    }
+
+    @Test
+    void testUnpairedSurrogates() {
+        assertEquals(roundTrip("a\uD800b"), "a\uD800b");
+        assertEquals(roundTrip("\uDC00"), "\uDC00");
+        assertEquals(roundTrip("\uDE00\uD83D"), "\uDE00\uD83D");
+    }
+
+    @Test
+    void testDecodeAtOffset() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.put((byte) 42).put(StringCodec.encode("ы\uD800"));
+        assertEquals(StringCodec.decode(buffer, 1, buffer.position() - 1), "ы\uD800");
+    }
+}
@@ -0,0 +1,105 @@
+package me.sieric.hashtable;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TreeBucketTest {
+
+    private TreeBucket tree;
+
+    @BeforeEach
+    void setUp() {
+        tree = new TreeBucket(new List());
+    }
+
+    /** Builds 2^n different strings with equal hash codes */
+    static ArrayList<String> collidingKeys(int n) {
+        ArrayList<String> keys = new ArrayList<>();
+        keys.add("");
+        for (int i = 0; i < n; i++) {
+            ArrayList<String> longer = new ArrayList<>();
+            for (String key : keys) {
+                longer.add(key + "Aa");
+                longer.add(key + "BB");
+            }
+            keys = longer;
+        }
+        return keys;
+    }
+
+    @Test
+    void testPutAndGet() {
+        for (String key : collidingKeys(8)) {
+            assertNull(tree.putOrReplace(new Pair(key, key)));
+        }
+        assertEquals(tree.size(), 256);
+        for (String key : collidingKeys(8)) {
+            assertEquals(tree.get(key, HashTable.spread(key.hashCode())).getValue(), key);
+        }
+        assertNull(tree.get("kek", HashTable.spread("kek".hashCode())));
+    }
+
+    @Test
+    void testReplace() {
+        tree.putOrReplace(new Pair("a", "1"));
+        assertEquals(tree.putOrReplace(new Pair("a", "2")).getValue(), "1");
+        assertEquals(tree.size(), 1);
+        assertEquals(tree.get("a", HashTable.spread("a".hashCode())).getValue(), "2");
+    }
+
+    @Test
+    void testRemove() {
+        for (String key : collidingKeys(6)) {
+            tree.putOrReplace(new Pair(key, key));
+        }
+        int hash = HashTable.spread(collidingKeys(6).get(0).hashCode());
+        for (String key : collidingKeys(5)) {
+            assertEquals(tree.remove(key + "Aa", hash).getValue(), key + "Aa");
+        }
+        assertNull(tree.remove("kek", HashTable.spread("kek".hashCode())));
+        assertEquals(tree.size(), 32);
+        for (String key : collidingKeys(5)) {
+            assertNull(tree.get(key + "Aa", hash));
+            assertNotNull(tree.get(key + "BB", hash));
+        }
+    }
+
+    @Test
+    void testHeightIsLogarithmic() {
+        for (String key : collidingKeys(14)) {
+            tree.putOrReplace(new Pair(key, key));
+        }
+        assertTrue(tree.height() <= 21);
+    }
+
+    @Test
+    void testPairAt() {
+        for (String key : collidingKeys(6)) {
+            tree.putOrReplace(new Pair(key, key));
+        }
+        Iterator<Pair> it = tree.iterator();
+        for (int i = 0; i < 64; i++) {
+            assertSame(tree.pairAt(i), it.next());
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.pairAt(64));
+    }
+
+    @Test
+    void testIterator() {
+        List list = new List();
+        list.put(new Pair("b", "2"));
+        list.put(new Pair("a", "1"));
+        tree = new TreeBucket(list);
+        Iterator<Pair> it = tree.iterator();
+        assertTrue(it.hasNext());
+        it.next();
+        assertTrue(it.hasNext());
+        it.next();
+        assertFalse(it.hasNext());
+    }
+}
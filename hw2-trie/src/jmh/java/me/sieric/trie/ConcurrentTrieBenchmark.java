@@ -0,0 +1,110 @@
+package me.sieric.trie;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling of ConcurrentTrie against Trie behind a global lock.
+ * Run it with a growing number of threads to get the scaling curve, e.g.
+ * -PjmhArgs="ConcurrentTrie -t 1", then -t 2, 4, ..., 32.
+ * Every tenth operation of the mixed benchmarks adds a word, which is removed by the next write of the thread
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConcurrentTrieBenchmark {
+
+    @Param({"100000"})
+    private int size;
+
+    private String[] words;
+    private ConcurrentTrie concurrentTrie;
+    private Trie lockedTrie;
+
+    @Setup
+    public void fill() {
+        words = Words.load(size, 1);
+        concurrentTrie = new ConcurrentTrie();
+        lockedTrie = new Trie();
+        for (String word : words) {
+            concurrentTrie.add(word);
+            lockedTrie.add(word);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        /** Position in the words, every thread starts at its own random one */
+        private int position = ThreadLocalRandom.current().nextInt(1 << 20);
+        private int operation = 0;
+        /** Word added by the thread, which is not removed yet, or null */
+        private String added = null;
+        /** Prefix of the words added by the thread, so threads don't remove each other's words */
+        private final String prefix = "#" + ThreadLocalRandom.current().nextLong();
+    }
+
+    private String nextWord(ThreadState state) {
+        state.position = (state.position + 7919) % size;
+        return words[state.position];
+    }
+
+    @Benchmark
+    public boolean containsConcurrent(ThreadState state) {
+        return concurrentTrie.contains(nextWord(state));
+    }
+
+    @Benchmark
+    public boolean containsLocked(ThreadState state) {
+        String word = nextWord(state);
+        synchronized (lockedTrie) {
+            return lockedTrie.contains(word);
+        }
+    }
+
+    @Benchmark
+    public boolean mixedConcurrent(ThreadState state) {
+        String word = nextWord(state);
+        if (++state.operation % 10 != 0) {
+            return concurrentTrie.contains(word);
+        }
+        if (state.added != null) {
+            concurrentTrie.remove(state.added);
+            state.added = null;
+            return true;
+        }
+        state.added = state.prefix + word;
+        return concurrentTrie.add(state.added);
+    }
+
+    @Benchmark
+    public boolean mixedLocked(ThreadState state) {
+        String word = nextWord(state);
+        synchronized (lockedTrie) {
+            if (++state.operation % 10 != 0) {
+                return lockedTrie.contains(word);
+            }
+            if (state.added != null) {
+                lockedTrie.remove(state.added);
+                state.added = null;
+                return true;
+            }
+            state.added = state.prefix + word;
+            return lockedTrie.add(state.added);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package me.sieric.trie;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typo-tolerant search: fuzzyMatches() over a 1M-word Trie.
+ * The queries are dictionary words with one or two random typos (a replaced, an inserted or a removed letter)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FuzzyMatchBenchmark {
+
+    @Param({"1000000"})
+    private int size;
+
+    @Param({"1", "2"})
+    private int maxEdits;
+
+    private Trie trie;
+    private String[] queries;
+    private int position = 0;
+
+    @Setup
+    public void fill() {
+        String[] words = Words.load(size, 1);
+        trie = new Trie();
+        for (String word : words) {
+            trie.add(word);
+        }
+        Random random = new Random(3);
+        queries = new String[1 << 12];
+        for (int i = 0; i < queries.length; i++) {
+            String query = words[random.nextInt(words.length)];
+            for (int typo = 0; typo < maxEdits; typo++) {
+                query = addTypo(random, query);
+            }
+            queries[i] = query;
+        }
+    }
+
+    private static String addTypo(Random random, String word) {
+        int index = random.nextInt(word.length() + 1);
+        String letter = Words.generate(random, 1);
+        switch (index == word.length() ? 0 : random.nextInt(3)) {
+            case 0:
+                return word.substring(0, index) + letter + word.substring(index);
+            case 1:
+                return word.substring(0, index) + letter + word.substring(index + 1);
+            default:
+                return word.substring(0, index) + word.substring(index + 1);
+        }
+    }
+
+    @Benchmark
+    public List<String> fuzzyMatches() {
+        position = (position + 1) & (queries.length - 1);
+        return trie.fuzzyMatches(queries[position], maxEdits);
+    }
+}
@@ -0,0 +1,139 @@
+package me.sieric.trie;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Memory and throughput of Trie with children in char arrays against the former HashMap&lt;Character, Node&gt; children.
+ * The retained heap per word of both tries is printed on setup,
+ * the benchmarks measure building the whole dictionary and lookups of its words
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TrieChildrenBenchmark {
+
+    @Param({"1000000"})
+    private int size;
+
+    private String[] words;
+    private Trie trie;
+    private HashMapTrie hashMapTrie;
+    private int position = 0;
+
+    @Setup
+    public void fill() {
+        words = Words.load(size, 1);
+        long before = usedHeap();
+        trie = new Trie();
+        for (String word : words) {
+            trie.add(word);
+        }
+        long afterTrie = usedHeap();
+        hashMapTrie = new HashMapTrie();
+        for (String word : words) {
+            hashMapTrie.add(word);
+        }
+        long afterHashMapTrie = usedHeap();
+        System.out.printf("retained heap per word: Trie %d bytes, HashMap children %d bytes%n",
+                (afterTrie - before) / size, (afterHashMapTrie - afterTrie) / size);
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private String nextWord() {
+        position = (position + 7919) % words.length;
+        return words[position];
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Trie buildTrie() {
+        Trie result = new Trie();
+        for (String word : words) {
+            result.add(word);
+        }
+        return result;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public HashMapTrie buildHashMapTrie() {
+        HashMapTrie result = new HashMapTrie();
+        for (String word : words) {
+            result.add(word);
+        }
+        return result;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean containsTrie() {
+        return trie.contains(nextWord());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean containsHashMapTrie() {
+        return hashMapTrie.contains(nextWord());
+    }
+
+    /** Trie with the node layout before char arrays: children in a HashMap with boxed symbols */
+    static class HashMapTrie {
+
+        private final Node root = new Node();
+
+        private boolean add(String element) {
+            Node node = root;
+            for (int i = 0; i < element.length(); i++) {
+                node = node.children.computeIfAbsent(element.charAt(i), symbol -> new Node());
+            }
+            if (node.isTerminal) {
+                return false;
+            }
+            node.isTerminal = true;
+            node = root;
+            node.size++;
+            for (int i = 0; i < element.length(); i++) {
+                node = node.children.get(element.charAt(i));
+                node.size++;
+            }
+            return true;
+        }
+
+        private boolean contains(String element) {
+            Node node = root;
+            for (int i = 0; i < element.length() && node != null; i++) {
+                node = node.children.get(element.charAt(i));
+            }
+            return node != null && node.isTerminal;
+        }
+
+        private static class Node {
+            private final HashMap<Character, Node> children = new HashMap<>();
+            private boolean isTerminal = false;
+            private int size = 0;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package me.sieric.trie;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput of short and very long keys.
+ * Every operation adds a key into a Trie with a dictionary and removes it back,
+ * so the Trie doesn't grow and every add creates the whole branch of the key.
+ * Keys of 100000 symbols would overflow the stack of the former recursive add
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TrieInsertBenchmark {
+
+    @Param({"8", "1000", "100000"})
+    private int length;
+
+    private Trie trie;
+    private String[] keys;
+    private int position = 0;
+
+    @Setup
+    public void fill() {
+        trie = new Trie();
+        for (String word : Words.load(100000, 1)) {
+            trie.add(word);
+        }
+        Random random = new Random(4);
+        keys = new String[64];
+        for (int i = 0; i < keys.length; i++) {
+            do {
+                keys[i] = Words.generate(random, length);
+            } while (trie.contains(keys[i]));
+        }
+    }
+
+    @Benchmark
+    public boolean addAndRemove() {
+        position = (position + 1) & (keys.length - 1);
+        trie.add(keys[position]);
+        return trie.remove(keys[position]);
+    }
+}
@@ -0,0 +1,77 @@
+package me.sieric.trie;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Soak of negative lookups: contains() and howManyStartWithPrefix() of strings, which are not in the Trie.
+ * Every iteration makes millions of misses, after every iteration the size of the retained heap is printed,
+ * which stays flat as the lookups don't create nodes.
+ * Run it with -prof gc to see that the lookups allocate nothing
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TrieMissBenchmark {
+
+    @Param({"100000"})
+    private int size;
+
+    private Trie trie;
+    private String[] misses;
+    private int position = 0;
+
+    @Setup
+    public void fill() {
+        trie = new Trie();
+        for (String word : Words.load(size, 1)) {
+            trie.add(word);
+        }
+        Random random = new Random(2);
+        misses = new String[1 << 16];
+        for (int i = 0; i < misses.length; i++) {
+            do {
+                misses[i] = Words.generate(random, 4 + random.nextInt(12));
+            } while (trie.contains(misses[i]));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void printHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        System.out.printf("retained heap: %d KB%n", (runtime.totalMemory() - runtime.freeMemory()) / 1024);
+    }
+
+    private String nextMiss() {
+        position = (position + 1) & (misses.length - 1);
+        return misses[position];
+    }
+
+    @Benchmark
+    public boolean containsMiss() {
+        return trie.contains(nextMiss());
+    }
+
+    @Benchmark
+    public int prefixMiss() {
+        return trie.howManyStartWithPrefix(nextMiss());
+    }
+}
@@ -0,0 +1,58 @@
+package me.sieric.trie;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * Dictionaries for the benchmarks.
+ * If the system property "dictionary" names a file (pass -jvmArgsAppend -Ddictionary=/usr/share/dict/words to JMH),
+ * its lines are used,
+ * otherwise English-like words are generated: lowercase letters with English frequencies, 2 to 14 letters long
+ */
+final class Words {
+
+    /** Letters repeated according to their frequency in English texts */
+    private static final String LETTERS = "eeeeeeeeeeeettttttttaaaaaaaaoooooooiiiiiiinnnnnnnsssssshhhhhhrrrrrr"
+            + "ddddllllccccuuuummmwwwffggyyppbbvkjxqz";
+
+    private Words() {
+    }
+
+    /**
+     * Gets count words: the first ones from the dictionary file, repeated if it's shorter, or generated ones
+     * @param seed - seed of the generated words
+     */
+    static String[] load(int count, long seed) {
+        String dictionary = System.getProperty("dictionary");
+        if (dictionary != null) {
+            try {
+                String[] lines = Files.readAllLines(Paths.get(dictionary)).toArray(new String[0]);
+                String[] words = new String[count];
+                for (int i = 0; i < count; i++) {
+                    words[i] = i < lines.length ? lines[i] : lines[i % lines.length] + i / lines.length;
+                }
+                return words;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        Random random = new Random(seed);
+        String[] words = new String[count];
+        for (int i = 0; i < count; i++) {
+            words[i] = generate(random, 2 + random.nextInt(7) + random.nextInt(7));
+        }
+        return words;
+    }
+
+    /** Generates a word of given length */
+    static String generate(Random random, int length) {
+        char[] word = new char[length];
+        for (int i = 0; i < length; i++) {
+            word[i] = LETTERS.charAt(random.nextInt(LETTERS.length()));
+        }
+        return new String(word);
+    }
+}
@@ -0,0 +1,177 @@
+package me.sieric.trie;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Thread-safe Trie with the operations of {@link Trie}.
+ * No locks are taken: children of a node are an immutable array replaced by CAS,
+ * a string is added or removed by CAS of the terminal flag of its node,
+ * and the sizes of the subtrees on the path are updated atomically after that.
+ * Reads are wait-free; size() and howManyStartWithPrefix() concurrent with writes are weakly consistent.
+ * Removal doesn't delete nodes, which are left without strings, so that concurrent adds are never lost
+ */
+public class ConcurrentTrie {
+
+    private static final AtomicReferenceFieldUpdater<Node, Children> CHILDREN =
+            AtomicReferenceFieldUpdater.newUpdater(Node.class, Children.class, "children");
+    private static final AtomicIntegerFieldUpdater<Node> TERMINAL =
+            AtomicIntegerFieldUpdater.newUpdater(Node.class, "terminal");
+    private static final AtomicIntegerFieldUpdater<Node> SIZE =
+            AtomicIntegerFieldUpdater.newUpdater(Node.class, "size");
+
+    /** The trie root */
+    private final Node root = new Node();
+
+    /**
+     * Adds a new string to Trie.
+     * @return true if a new string has been added, false if it already exists
+     */
+    public boolean add(@NotNull String element) {
+        Node node = root;
+        for (int i = 0; i < element.length(); i++) {
+            node = node.go(element.charAt(i));
+        }
+        if (!TERMINAL.compareAndSet(node, 0, 1)) {
+            return false;
+        }
+        updateSizes(element, 1);
+        return true;
+    }
+
+    /**
+     * Removes string from Trie.
+     * @return true, if the string existed in the Trie before removal, false otherwise
+     */
+    public boolean remove(@NotNull String element) {
+        Node node = find(element);
+        if (node == null || !TERMINAL.compareAndSet(node, 1, 0)) {
+            return false;
+        }
+        updateSizes(element, -1);
+        return true;
+    }
+
+    /** Adds delta to the sizes of all the nodes on the path, the path must exist */
+    private void updateSizes(String path, int delta) {
+        Node node = root;
+        SIZE.addAndGet(node, delta);
+        for (int i = 0; i < path.length(); i++) {
+            node = node.get(path.charAt(i));
+            SIZE.addAndGet(node, delta);
+        }
+    }
+
+    /**
+     * Finds the node at the end of the path without changing Trie
+     * @return the node or null if there's no such path
+     */
+    private Node find(String path) {
+        Node node = root;
+        for (int i = 0; i < path.length() && node != null; i++) {
+            node = node.get(path.charAt(i));
+        }
+        return node;
+    }
+
+    /**
+     * Checks if Trie contains a string
+     * @param element - a string for which to check whether it is in Trie
+     * @return true if the given string is in the Trie, false otherwise
+     */
+    public boolean contains(@NotNull String element) {
+        Node node = find(element);
+        return node != null && node.terminal == 1;
+    }
+
+    /**
+     * Gets a number of strings in Trie
+     * @return number of strings in Trie
+     */
+    public int size() {
+        return root.size;
+    }
+
+    /**
+     * Returns number of strings in the Trie which start with given prefix
+     * @return  number of strings in the Trie which start with given prefix
+     */
+    public int howManyStartWithPrefix(@NotNull String prefix) {
+        Node node = find(prefix);
+        return node == null ? 0 : node.size;
+    }
+
+    /** Immutable children of a node: sorted symbols and the nodes in the same order */
+    private static class Children {
+
+        private static final Children EMPTY = new Children(new char[0], new Node[0]);
+
+        private final char[] symbols;
+        private final Node[] nodes;
+
+        private Children(char[] symbols, Node[] nodes) {
+            this.symbols = symbols;
+            this.nodes = nodes;
+        }
+
+        /** Creates a copy with the new child inserted at given position */
+        private Children insert(int index, char symbol, Node node) {
+            char[] newSymbols = new char[symbols.length + 1];
+            Node[] newNodes = new Node[nodes.length + 1];
+            System.arraycopy(symbols, 0, newSymbols, 0, index);
+            System.arraycopy(nodes, 0, newNodes, 0, index);
+            newSymbols[index] = symbol;
+            newNodes[index] = node;
+            System.arraycopy(symbols, index, newSymbols, index + 1, symbols.length - index);
+            System.arraycopy(nodes, index, newNodes, index + 1, nodes.length - index);
+            return new Children(newSymbols, newNodes);
+        }
+    }
+
+    /** Class to store trie nodes */
+    private static class Node {
+
+        /** Children, replaced by CAS */
+        private volatile Children children = Children.EMPTY;
+
+        /** 1 if node is terminal, 0 otherwise */
+        private volatile int terminal = 0;
+
+        /** Number of terminal nodes in subtree (including this node) */
+        private volatile int size = 0;
+
+        /**
+         * Goes by the edge of Trie without creating nodes
+         * @return the child by the symbol or null if there's no such edge
+         */
+        private Node get(char symbol) {
+            Children current = children;
+            int index = Arrays.binarySearch(current.symbols, symbol);
+            return index >= 0 ? current.nodes[index] : null;
+        }
+
+        /**
+         * Goes by the edge of Trie.
+         * If there's no such edge, creates a new Node, retrying if another thread changed the children
+         */
+        private Node go(char symbol) {
+            Node node = null;
+            while (true) {
+                Children current = children;
+                int index = Arrays.binarySearch(current.symbols, symbol);
+                if (index >= 0) {
+                    return current.nodes[index];
+                }
+                if (node == null) {
+                    node = new Node();
+                }
+                if (CHILDREN.compareAndSet(this, current, current.insert(-index - 1, symbol, node))) {
+                    return node;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package me.sieric.trie;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only Trie, which serves lookups straight from a memory-mapped file
+ * written by {@link Trie#writeFrozen(Path)}, so opening it doesn't build any nodes
+ * and processes mapping the same file share its pages.
+ * Nodes are numbered in level order, so the children of every node are consecutive
+ * and the child by the edge number e is the node number e + 1.
+ * File format (all numbers are big-endian):
+ * magic, version, number of nodes and number of edges (ints),
+ * then for every node and one more sentinel record: its size and (first edge << 1 | terminal flag) (ints),
+ * then the symbols of all the edges (chars), sorted inside every node
+ */
+public class FrozenTrie {
+
+    static final int MAGIC = 0x46546231;
+    static final int VERSION = 1;
+
+    /** Size of magic, version, number of nodes and number of edges */
+    static final int HEADER_SIZE = 4 * Integer.BYTES;
+
+    /** Size of the node record */
+    static final int NODE_SIZE = 2 * Integer.BYTES;
+
+    private final MappedByteBuffer buffer;
+    private final int nodeCount;
+    private final int edgeCount;
+
+    /** Offset of the edge symbols */
+    private final int symbolsOffset;
+
+    private FrozenTrie(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a frozen Trie");
+        }
+        if (buffer.getInt(Integer.BYTES) != VERSION) {
+            throw new IOException("Unsupported frozen Trie version " + buffer.getInt(Integer.BYTES));
+        }
+        nodeCount = buffer.getInt(2 * Integer.BYTES);
+        edgeCount = buffer.getInt(3 * Integer.BYTES);
+        long symbolsOffset = HEADER_SIZE + (nodeCount + 1L) * NODE_SIZE;
+        if (nodeCount <= 0 || edgeCount != nodeCount - 1
+                || symbolsOffset + (long) edgeCount * Character.BYTES > buffer.limit()) {
+            throw new IOException("Corrupted frozen Trie");
+        }
+        this.symbolsOffset = (int) symbolsOffset;
+    }
+
+    /**
+     * Maps the file into memory
+     * @throws IOException if reading the file failed or it's not a frozen Trie
+     */
+    public static FrozenTrie open(@NotNull Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Frozen Trie is too large");
+            }
+            return new FrozenTrie(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    private int nodeSize(int node) {
+        return buffer.getInt(HEADER_SIZE + node * NODE_SIZE);
+    }
+
+    private int firstEdgeAndTerminal(int node) {
+        return buffer.getInt(HEADER_SIZE + node * NODE_SIZE + Integer.BYTES);
+    }
+
+    /**
+     * Goes by the edge of Trie
+     * @return number of the child by the symbol or -1 if there's no such edge
+     */
+    private int get(int node, char symbol) {
+        int low = firstEdgeAndTerminal(node) >>> 1;
+        int high = (firstEdgeAndTerminal(node + 1) >>> 1) - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char middleSymbol = buffer.getChar(symbolsOffset + middle * Character.BYTES);
+            if (middleSymbol < symbol) {
+                low = middle + 1;
+            } else if (middleSymbol > symbol) {
+                high = middle - 1;
+            } else {
+                return middle + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the node at the end of the path
+     * @return number of the node or -1 if there's no such path
+     */
+    private int find(String path) {
+        int node = 0;
+        for (int i = 0; i < path.length() && node != -1; i++) {
+            node = get(node, path.charAt(i));
+        }
+        return node;
+    }
+
+    /**
+     * Checks if Trie contains a string
+     * @param element - a string for which to check whether it is in Trie
+     * @return true if the given string is in the Trie, false otherwise
+     */
+    public boolean contains(@NotNull String element) {
+        int node = find(element);
+        return node != -1 && (firstEdgeAndTerminal(node) & 1) != 0;
+    }
+
+    /**
+     * Gets a number of strings in Trie
+     * @return number of strings in Trie
+     */
+    public int size() {
+        return nodeSize(0);
+    }
+
+    /**
+     * Returns number of strings in the Trie which start with given prefix
+     * @return  number of strings in the Trie which start with given prefix
+     */
+    public int howManyStartWithPrefix(@NotNull String prefix) {
+        int node = find(prefix);
+        return node == -1 ? 0 : nodeSize(node);
+    }
+}
@@ -0,0 +1,257 @@
+package me.sieric.trie;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Implements the path-compressed (radix, Patricia) Trie.
+ * Has the same operations as {@link Trie}, but edges are labeled with strings,
+ * so a chain of nodes with single children is stored as one node.
+ * Every node except the root is terminal or has at least two children.
+ * Stores every string only once.
+ */
+public class RadixTrie {
+
+    /** The trie root, its label is empty */
+    private final Node root = new Node("");
+
+    /**
+     * Adds a new string to Trie.
+     * @return true if a new string has been added, false if it already exists
+     */
+    public boolean add(@NotNull String element) {
+        if (contains(element)) {
+            return false;
+        }
+        Node node = root;
+        int index = 0;
+        while (true) {
+            node.size++;
+            if (index == element.length()) {
+                node.isTerminal = true;
+                return true;
+            }
+            char symbol = element.charAt(index);
+            Node child = node.get(symbol);
+            if (child == null) {
+                Node leaf = new Node(element.substring(index));
+                leaf.isTerminal = true;
+                leaf.size = 1;
+                node.setChild(symbol, leaf);
+                return true;
+            }
+            int common = commonPrefixLength(child.label, element, index);
+            if (common < child.label.length()) {
+                Node middle = new Node(child.label.substring(0, common));
+                middle.size = child.size;
+                child.label = child.label.substring(common);
+                middle.setChild(child.label.charAt(0), child);
+                node.setChild(symbol, middle);
+                child = middle;
+            }
+            node = child;
+            index += common;
+        }
+    }
+
+    /** Gets the length of the common prefix of the label and element[index:] */
+    private static int commonPrefixLength(String label, String element, int index) {
+        int length = Math.min(label.length(), element.length() - index);
+        int common = 0;
+        while (common < length && label.charAt(common) == element.charAt(index + common)) {
+            common++;
+        }
+        return common;
+    }
+
+    /**
+     * Finds the node at the end of the path without changing Trie
+     * @param path - a path from the root
+     * @param wholeEdges - if false, the path may end in the middle of an edge, then the node below is returned
+     * @return the node or null if there's no such path
+     */
+    private Node find(String path, boolean wholeEdges) {
+        Node node = root;
+        int index = 0;
+        while (index < path.length()) {
+            Node child = node.get(path.charAt(index));
+            if (child == null) {
+                return null;
+            }
+            int length = Math.min(child.label.length(), path.length() - index);
+            if (!path.regionMatches(index, child.label, 0, length)
+                    || (wholeEdges && length < child.label.length())) {
+                return null;
+            }
+            node = child;
+            index += length;
+        }
+        return node;
+    }
+
+    /**
+     * Checks if Trie contains a string
+     * @param element - a string for which to check whether it is in Trie
+     * @return true if the given string is in the Trie, false otherwise
+     */
+    public boolean contains(@NotNull String element) {
+        Node node = find(element, true);
+        return node != null && node.isTerminal;
+    }
+
+    /**
+     * Removes string from Trie.
+     * Nodes left without strings are deleted and single-child chains are merged back
+     * @param element - a string to remove
+     * @return true, if the string existed in the Trie before removal, false otherwise
+     */
+    public boolean remove(@NotNull String element) {
+        if (!contains(element)) {
+            return false;
+        }
+        Node parent = null;
+        Node node = root;
+        int index = 0;
+        while (true) {
+            node.size--;
+            if (index == element.length()) {
+                break;
+            }
+            parent = node;
+            node = node.get(element.charAt(index));
+            index += node.label.length();
+        }
+        node.isTerminal = false;
+        if (node == root) {
+            return true;
+        }
+        if (node.childCount == 0) {
+            parent.removeChild(node.label.charAt(0));
+            if (parent != root && !parent.isTerminal && parent.childCount == 1) {
+                parent.mergeWithChild();
+            }
+        } else if (node.childCount == 1) {
+            node.mergeWithChild();
+        }
+        return true;
+    }
+
+    /**
+     * Gets a number of strings in Trie
+     * @return number of strings in Trie
+     */
+    public int size() {
+        return root.size;
+    }
+
+    /**
+     * Returns number of strings in the Trie which start with given prefix
+     * @return  number of strings in the Trie which start with given prefix
+     */
+    public int howManyStartWithPrefix(@NotNull String prefix) {
+        Node node = find(prefix, false);
+        return node == null ? 0 : node.size;
+    }
+
+    /** Gets the number of nodes in Trie, including the root */
+    int nodeCount() {
+        int count = 0;
+        Node[] stack = {root};
+        int stackSize = 1;
+        while (stackSize > 0) {
+            Node node = stack[--stackSize];
+            count++;
+            if (stackSize + node.childCount > stack.length) {
+                stack = Arrays.copyOf(stack, Math.max(stack.length * 2, stackSize + node.childCount));
+            }
+            System.arraycopy(node.children, 0, stack, stackSize, node.childCount);
+            stackSize += node.childCount;
+        }
+        return count;
+    }
+
+    /**
+     * Class to store trie nodes.
+     * Children are stored in parallel arrays sorted by the first symbols of their labels
+     */
+    private static class Node {
+
+        private static final char[] NO_SYMBOLS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        /** Label of the edge from the parent */
+        private String label;
+
+        /** Sorted first symbols of the children labels */
+        private char[] symbols = NO_SYMBOLS;
+
+        /** Children in the order of symbols */
+        private Node[] children = NO_CHILDREN;
+
+        /** Number of children */
+        private int childCount = 0;
+
+        /** Is node terminal or not */
+        private boolean isTerminal = false;
+
+        /** Number of terminal nodes in subtree (including this node) */
+        private int size = 0;
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        /**
+         * Goes by the edge, which label starts with the symbol
+         * @return the child or null if there's no such edge
+         */
+        private Node get(char symbol) {
+            int index = Arrays.binarySearch(symbols, 0, childCount, symbol);
+            return index >= 0 ? children[index] : null;
+        }
+
+        /** Sets the child by the first symbol of its label, replacing the existing one */
+        private void setChild(char symbol, Node child) {
+            int index = Arrays.binarySearch(symbols, 0, childCount, symbol);
+            if (index >= 0) {
+                children[index] = child;
+                return;
+            }
+            index = -index - 1;
+            if (childCount == symbols.length) {
+                int newLength = Math.max(2, childCount + (childCount >> 1));
+                symbols = Arrays.copyOf(symbols, newLength);
+                children = Arrays.copyOf(children, newLength);
+            }
+            System.arraycopy(symbols, index, symbols, index + 1, childCount - index);
+            System.arraycopy(children, index, children, index + 1, childCount - index);
+            symbols[index] = symbol;
+            children[index] = child;
+            childCount++;
+        }
+
+        /** Removes the child by the first symbol of its label, if there's one */
+        private void removeChild(char symbol) {
+            int index = Arrays.binarySearch(symbols, 0, childCount, symbol);
+            if (index < 0) {
+                return;
+            }
+            System.arraycopy(symbols, index + 1, symbols, index, childCount - index - 1);
+            System.arraycopy(children, index + 1, children, index, childCount - index - 1);
+            childCount--;
+            children[childCount] = null;
+        }
+
+        /** Merges non-terminal node with its only child, so the node takes the child's place */
+        private void mergeWithChild() {
+            Node child = children[0];
+            label = label + child.label;
+            isTerminal = child.isTerminal;
+            size = child.size;
+            symbols = child.symbols;
+            children = child.children;
+            childCount = child.childCount;
+        }
+    }
+}
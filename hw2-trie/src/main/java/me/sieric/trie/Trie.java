@@ -3,56 +3,215 @@ package me.sieric.trie;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.*;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
 
 /**
  * Implements the Trie data structure.
  * Can add new strings, remove stored,
- * check if contains, count how many stored strings starts with specified prefix.
+ * check if contains, count how many stored strings starts with specified prefix,
+ * list them or the ones with the largest weights.
  * Stores every string only once.
  * Can be serialized.
  */
 public class Trie implements Serializable {
 
+    /** First bytes of the serialized Trie, "Trie" in ASCII */
+    static final int FORMAT_MAGIC = 0x54726965;
+
+    /** Version of the serialization format, version 1 has no weights */
+    static final int FORMAT_VERSION = 2;
+
+    /** ObjectOutputStream header, which starts the legacy serialization format */
+    private static final int LEGACY_MAGIC = 0xACED;
+
     /** The trie root */
     private Node root = new Node();
 
+    /** Number of structural modifications, used by iterators to fail fast */
+    private int modCount = 0;
+
+    /** Nodes on the path of the string being added or removed, reused between operations */
+    private transient Node[] pathBuffer;
+
+    /**
+     * Builds Trie from strings in lexicographic order in one pass.
+     * Every string shares the path with the previous one up to their common prefix,
+     * so only the nodes after it are created and no lookups from the root are made.
+     * Strings get weight 0, repeated strings are skipped
+     * @param elements - strings sorted by {@link String#compareTo(String)}
+     * @return the built Trie
+     * @throws IllegalArgumentException if strings are not sorted or there's null among them
+     */
+    public static Trie fromSorted(@NotNull Iterator<String> elements) throws IllegalArgumentException {
+        Trie trie = new Trie();
+        Node[] path = new Node[16];
+        path[0] = trie.root;
+        String previous = null;
+        while (elements.hasNext()) {
+            String element = elements.next();
+            if (element == null) {
+                throw new IllegalArgumentException("Elements must be not null");
+            }
+            int common = 0;
+            if (previous != null) {
+                int order = previous.compareTo(element);
+                if (order == 0) {
+                    continue;
+                }
+                if (order > 0) {
+                    throw new IllegalArgumentException("Elements must be sorted: " + element + " after " + previous);
+                }
+                int length = Math.min(previous.length(), element.length());
+                while (common < length && previous.charAt(common) == element.charAt(common)) {
+                    common++;
+                }
+            }
+            if (element.length() >= path.length) {
+                path = Arrays.copyOf(path, Math.max(path.length * 2, element.length() + 1));
+            }
+            for (int i = common; i < element.length(); i++) {
+                Node child = new Node();
+                path[i].setChild(element.charAt(i), child);
+                path[i + 1] = child;
+            }
+            path[element.length()].isTerminal = true;
+            for (int i = 0; i <= element.length(); i++) {
+                path[i].size++;
+                path[i].maxWeight = Math.max(path[i].maxWeight, 0);
+            }
+            previous = element;
+        }
+        return trie;
+    }
+
     /**
-     * Adds a new string to Trie.
-     * Returns true if string already exists, false otherwise
-     * @return true if string already exists, false otherwise
+     * Adds a new string to Trie with weight 0, the weight of an existing string is not changed.
+     * Returns true if a new string has been added, false if it already exists
+     * @return true if a new string has been added, false if it already exists
      */
     public boolean add(@NotNull String element) {
-        return addFromNode(root, element, 0, true);
+        return addString(element, 0, false);
     }
 
     /**
-     * Adds/Removes (Adds if toAdd, Removes otherwise)
-     * a new string element[index:] to the subtree of given node.
-     * Return true, if the operation is correct
-     * @param node - a current node, where the path starts
-     * @param element - a string, which suffix to add/remove from trie
-     * @param index - a position from which the suffix starts
-     * @param valueAtTheEndOfThePath - a flag, which is true if suffix is adding to Trie and false if deleting
-     * @return true if a new string has been added/removed or false otherwise
+     * Adds a string with given weight to Trie, or sets the weight of an existing string.
+     * Weights are used by {@link #topK(String, int)}
+     * @return true if a new string has been added, false if it already exists
      */
-    private boolean addFromNode(Node node, String element, int index, boolean valueAtTheEndOfThePath) {
-        if (element.length() == index) {
-            if (node.isTerminal == valueAtTheEndOfThePath) {
-                return false;
-            } else {
-                node.isTerminal = valueAtTheEndOfThePath;
-                node.size = valueAtTheEndOfThePath? 1 : 0;
-                return true;
+    public boolean add(@NotNull String element, long weight) {
+        return addString(element, weight, true);
+    }
+
+    /**
+     * Adds a string element with given weight to Trie.
+     * Walks down without recursion, remembering the path, and then updates the sizes
+     * and the maximal weights of the nodes on it
+     * @param element - a string to add
+     * @param weight - a weight of the added string
+     * @param setWeight - a flag, which is true if the weight of an existing string must be replaced
+     * @return true if a new string has been added or false otherwise
+     */
+    private boolean addString(String element, long weight, boolean setWeight) {
+        int length = element.length();
+        Node[] path = pathBuffer(length);
+        Node node = root;
+        path[0] = node;
+        for (int i = 0; i < length; i++) {
+            node = node.go(element.charAt(i));
+            path[i + 1] = node;
+        }
+        boolean added = !node.isTerminal;
+        long oldWeight = node.weight;
+        if (added) {
+            node.isTerminal = true;
+            node.weight = weight;
+            for (int i = 0; i <= length; i++) {
+                path[i].size++;
             }
+            modCount++;
+        } else if (setWeight) {
+            node.weight = weight;
         }
-        if (addFromNode(node.go(element.charAt(index)), element, index + 1, valueAtTheEndOfThePath)) {
-            node.size += valueAtTheEndOfThePath ? 1 : 0;
-            return true;
-        } else {
-            return false;
+        if (node.weight > oldWeight || added) {
+            for (int i = 0; i <= length; i++) {
+                path[i].maxWeight = Math.max(path[i].maxWeight, node.weight);
+            }
+        } else if (node.weight < oldWeight) {
+            recomputeMaxWeights(path, length);
         }
+        Arrays.fill(path, 0, length + 1, null);
+        return added;
+    }
+
+    /**
+     * Removes a string element from Trie.
+     * Walks down without recursion, remembering the path, then updates the sizes on it,
+     * deletes children left without strings, so no empty branches remain, and updates the maximal weights
+     * @param element - a string to remove
+     * @return true if the string has been removed or false otherwise
+     */
+    private boolean removeString(String element) {
+        int length = element.length();
+        Node[] path = pathBuffer(length);
+        Node node = root;
+        path[0] = node;
+        for (int i = 0; i < length && node != null; i++) {
+            node = node.get(element.charAt(i));
+            path[i + 1] = node;
+        }
+        boolean removed = node != null && node.isTerminal;
+        if (removed) {
+            node.isTerminal = false;
+            node.weight = 0;
+            for (int i = 0; i <= length; i++) {
+                path[i].size--;
+            }
+            int deepest = length;
+            while (deepest > 0 && path[deepest].size == 0) {
+                path[deepest - 1].removeChild(element.charAt(deepest - 1));
+                deepest--;
+            }
+            recomputeMaxWeights(path, deepest);
+            modCount++;
+        }
+        Arrays.fill(path, 0, length + 1, null);
+        return removed;
+    }
+
+    /**
+     * Recomputes the maximal weights of the nodes path[0..deepest] bottom-up,
+     * stopping at the first node, which maximal weight hasn't changed
+     */
+    private static void recomputeMaxWeights(Node[] path, int deepest) {
+        for (int i = deepest; i >= 0; i--) {
+            long oldMaxWeight = path[i].maxWeight;
+            path[i].recomputeMaxWeight();
+            if (path[i].maxWeight == oldMaxWeight) {
+                return;
+            }
+        }
+    }
+
+    /** Gets the buffer for the path of the string of given length, reusing it between operations */
+    private Node[] pathBuffer(int length) {
+        if (pathBuffer == null || pathBuffer.length <= length) {
+            pathBuffer = new Node[Math.max(16, Math.max(length + 1, pathBuffer == null ? 0 : pathBuffer.length * 2))];
+        }
+        return pathBuffer;
+    }
+
+    /**
+     * Finds the node at the end of the path without changing Trie
+     * @return the node or null if there's no such path
+     */
+    private Node find(String path) {
+        Node currentNode = root;
+        for (int i = 0; i < path.length() && currentNode != null; i++) {
+            currentNode = currentNode.get(path.charAt(i));
+        }
+        return currentNode;
     }
 
     /**
@@ -61,11 +220,8 @@ public class Trie implements Serializable {
      * @return true if the given string is in the Trie, false otherwise
      */
     public boolean contains(@NotNull String element) {
-        Node currentNode = root;
-        for (int i = 0; i < element.length(); i++) {
-            currentNode = currentNode.go(element.charAt(i));
-        }
-        return currentNode.isTerminal;
+        Node node = find(element);
+        return node != null && node.isTerminal;
     }
 
     /**
@@ -75,7 +231,7 @@ public class Trie implements Serializable {
      * @return true, if the string existed in the Trie before removal, false otherwise
      */
     public boolean remove(@NotNull String element) {
-        return addFromNode(root, element, 0, false);
+        return removeString(element);
     }
 
     /**
@@ -91,36 +247,556 @@ public class Trie implements Serializable {
      * @return  number of strings in the Trie which start with given prefix
      */
     public int howManyStartWithPrefix(@NotNull String prefix) {
-        Node currentNode = root;
-        for (int i = 0; i < prefix.length(); i++) {
-            currentNode = currentNode.go(prefix.charAt(i));
+        Node node = find(prefix);
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Returns the strings in the Trie which start with given prefix, in lexicographic order.
+     * Strings are found lazily, while iterating
+     * @return iterator over the strings, which fails fast if Trie is changed
+     */
+    public Iterator<String> startingWith(@NotNull String prefix) {
+        return new PrefixIterator(find(prefix), prefix);
+    }
+
+    /**
+     * Returns at most k strings in the Trie which start with given prefix and have the largest weights.
+     * Subtrees are visited in the order of their maximal weights, so only the subtrees,
+     * which can contain the result, are expanded
+     * @return strings in the order of decreasing weight, strings of equal weights are in lexicographic order
+     * @throws IllegalArgumentException if k is negative
+     */
+    public List<String> topK(@NotNull String prefix, int k) throws IllegalArgumentException {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must be not negative");
+        }
+        ArrayList<String> result = new ArrayList<>();
+        Node start = find(prefix);
+        if (start == null || k == 0) {
+            return result;
+        }
+        PriorityQueue<Candidate> queue = new PriorityQueue<>();
+        queue.add(new Candidate(start.maxWeight, prefix, start));
+        while (!queue.isEmpty() && result.size() < k) {
+            Candidate candidate = queue.poll();
+            Node node = candidate.node;
+            if (node == null) {
+                result.add(candidate.string);
+                continue;
+            }
+            if (node.isTerminal) {
+                queue.add(new Candidate(node.weight, candidate.string, null));
+            }
+            for (int i = node.nextChild(0); i != -1; i = node.nextChild(i + 1)) {
+                Node child = node.children[i];
+                queue.add(new Candidate(child.maxWeight, candidate.string + node.symbolAt(i), child));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the strings in the Trie within given Levenshtein distance from the query.
+     * Walks the Trie keeping a row of the edit distance table for every depth of the path,
+     * a subtree is skipped as soon as all the distances in the row exceed maxEdits.
+     * Only the diagonal band of width 2 * maxEdits + 1 of every row is computed
+     * @param query - a string to search
+     * @param maxEdits - maximal number of inserted, removed or replaced symbols
+     * @return found strings in lexicographic order
+     * @throws IllegalArgumentException if maxEdits is negative
+     */
+    public List<String> fuzzyMatches(@NotNull String query, int maxEdits) throws IllegalArgumentException {
+        if (maxEdits < 0) {
+            throw new IllegalArgumentException("Number of edits must be not negative");
+        }
+        ArrayList<String> result = new ArrayList<>();
+        int length = query.length();
+        int cap = maxEdits == Integer.MAX_VALUE ? maxEdits : maxEdits + 1;
+        int[][] rows = new int[16][];
+        rows[0] = new int[length + 1];
+        for (int j = 0; j <= length; j++) {
+            rows[0][j] = j;
+        }
+        if (root.isTerminal && length <= maxEdits) {
+            result.add("");
+        }
+        Node[] nodes = new Node[16];
+        int[] positions = new int[16];
+        nodes[0] = root;
+        positions[0] = root.nextChild(0);
+        int depth = 1;
+        StringBuilder path = new StringBuilder();
+        while (depth > 0) {
+            Node node = nodes[depth - 1];
+            int position = positions[depth - 1];
+            if (position == -1) {
+                depth--;
+                if (depth > 0) {
+                    path.setLength(depth - 1);
+                }
+                continue;
+            }
+            positions[depth - 1] = node.nextChild(position + 1);
+            char symbol = node.symbolAt(position);
+            if (depth == rows.length) {
+                rows = Arrays.copyOf(rows, depth * 2);
+                nodes = Arrays.copyOf(nodes, depth * 2);
+                positions = Arrays.copyOf(positions, depth * 2);
+            }
+            if (rows[depth] == null) {
+                rows[depth] = new int[length + 1];
+            }
+            int[] previousRow = rows[depth - 1];
+            int[] row = rows[depth];
+            // only the cells with |depth - j| <= maxEdits can fit, the others are cut to maxEdits + 1
+            int low = Math.max(1, depth - maxEdits);
+            int high = depth > length - maxEdits ? length : depth + maxEdits;
+            row[0] = Math.min(depth, cap);
+            if (low > 1) {
+                row[low - 1] = cap;
+            }
+            if (high < length) {
+                row[high + 1] = cap;
+            }
+            int minimum = row[low - 1];
+            for (int j = low; j <= high; j++) {
+                int replace = previousRow[j - 1] + (query.charAt(j - 1) == symbol ? 0 : 1);
+                row[j] = Math.min(cap, Math.min(replace, Math.min(row[j - 1], previousRow[j]) + 1));
+                minimum = Math.min(minimum, row[j]);
+            }
+            if (minimum > maxEdits) {
+                continue;
+            }
+            Node child = node.children[position];
+            path.append(symbol);
+            if (child.isTerminal && high == length && row[length] <= maxEdits) {
+                result.add(path.toString());
+            }
+            nodes[depth] = child;
+            positions[depth] = child.nextChild(0);
+            depth++;
+        }
+        return result;
+    }
+
+    /** String found by {@link #topK(String, int)} or a subtree, which strings start with it */
+    private static class Candidate implements Comparable<Candidate> {
+
+        /** Weight of the string or maximal weight of the subtree */
+        private final long weight;
+        private final String string;
+
+        /** Subtree or null if the candidate is the string itself */
+        private final Node node;
+
+        private Candidate(long weight, String string, Node node) {
+            this.weight = weight;
+            this.string = string;
+            this.node = node;
+        }
+
+        /** Larger weights first, then lexicographic order, then a string before the subtree with the same path */
+        @Override
+        public int compareTo(@NotNull Candidate other) {
+            if (weight != other.weight) {
+                return weight > other.weight ? -1 : 1;
+            }
+            int result = string.compareTo(other.string);
+            if (result != 0) {
+                return result;
+            }
+            return Boolean.compare(node != null, other.node != null);
+        }
+    }
+
+    /** Iterator over the strings in the subtree, which walks it in pre-order with an explicit stack */
+    private class PrefixIterator implements Iterator<String> {
+
+        private Node[] nodes = new Node[16];
+        private int[] positions = new int[16];
+        private int depth = 0;
+        private final StringBuilder path;
+        private String next;
+        private final int expectedModCount = modCount;
+
+        private PrefixIterator(Node start, String prefix) {
+            path = new StringBuilder(prefix);
+            if (start != null) {
+                push(start);
+                next = start.isTerminal ? prefix : advance();
+            }
+        }
+
+        private void push(Node node) {
+            if (depth == nodes.length) {
+                nodes = Arrays.copyOf(nodes, depth * 2);
+                positions = Arrays.copyOf(positions, depth * 2);
+            }
+            nodes[depth] = node;
+            positions[depth] = node.nextChild(0);
+            depth++;
+        }
+
+        /**
+         * Walks to the next terminal node
+         * @return the string of the node or null if there are no more strings
+         */
+        private String advance() {
+            while (depth > 0) {
+                Node node = nodes[depth - 1];
+                int position = positions[depth - 1];
+                if (position == -1) {
+                    depth--;
+                    if (depth > 0) {
+                        path.setLength(path.length() - 1);
+                    }
+                    continue;
+                }
+                positions[depth - 1] = node.nextChild(position + 1);
+                path.append(node.symbolAt(position));
+                Node child = node.children[position];
+                push(child);
+                if (child.isTerminal) {
+                    return path.toString();
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            String result = next;
+            next = advance();
+            return result;
         }
-        return currentNode.size;
     }
 
     /**
-     * Serialize Trie into OutputStream
-     * @param out - OutputStream to write into
+     * Serialize Trie into OutputStream.
+     * Format: magic, varint version, then the nodes in pre-order.
+     * Every node is a varint (number of children << 1 | terminal flag),
+     * a zigzag varint weight if the node is terminal, and then its children,
+     * every child is a varint symbol (difference with the previous symbol for all but the first one)
+     * followed by the child node.
+     * Nodes are written without recursion, so deep tries can be serialized
+     * @param out - OutputStream to write into, it's flushed but not closed
      * @throws IOException if writing into stream failed
      */
     void serialize(OutputStream out) throws IOException {
-        root.serialize(out);
+        DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(out));
+        stream.writeInt(FORMAT_MAGIC);
+        writeVarint(stream, FORMAT_VERSION);
+        writeNodeHeader(stream, root);
+        Node[] nodes = new Node[16];
+        int[] positions = new int[16];
+        int[] lastSymbols = new int[16];
+        nodes[0] = root;
+        positions[0] = root.nextChild(0);
+        lastSymbols[0] = 0;
+        int depth = 1;
+        while (depth > 0) {
+            Node node = nodes[depth - 1];
+            int position = positions[depth - 1];
+            if (position == -1) {
+                depth--;
+                continue;
+            }
+            positions[depth - 1] = node.nextChild(position + 1);
+            char symbol = node.symbolAt(position);
+            writeVarint(stream, symbol - lastSymbols[depth - 1]);
+            lastSymbols[depth - 1] = symbol;
+            Node child = node.children[position];
+            writeNodeHeader(stream, child);
+            if (depth == nodes.length) {
+                nodes = Arrays.copyOf(nodes, depth * 2);
+                positions = Arrays.copyOf(positions, depth * 2);
+                lastSymbols = Arrays.copyOf(lastSymbols, depth * 2);
+            }
+            nodes[depth] = child;
+            positions[depth] = child.nextChild(0);
+            lastSymbols[depth] = 0;
+            depth++;
+        }
+        stream.flush();
     }
 
     /**
-     * Deserialize Node from InputStream
+     * Deserialize Trie from InputStream, replacing its content.
+     * Reads both the current format and the legacy one (ObjectOutputStream per node),
+     * the stream is buffered, so it may be read past the end of the Trie
      * @param in - InputStream to read from
-     * @throws IOException if reading from stream failed
+     * @throws IOException if reading from stream failed or it doesn't contain a Trie
      */
     void deserialize(InputStream in) throws IOException {
-        root.deserialize(in);
+        BufferedInputStream stream = new BufferedInputStream(in);
+        stream.mark(2);
+        int header = stream.read() << 8 | stream.read();
+        stream.reset();
+        if (header == LEGACY_MAGIC) {
+            root = readLegacy(stream);
+        } else {
+            root = read(new DataInputStream(stream));
+        }
+        modCount++;
     }
 
-    /** Class to store trie nodes */
-    private class Node implements Serializable {
+    /**
+     * Writes Trie in the format of {@link FrozenTrie}, which can be opened by {@link FrozenTrie#open(Path)}
+     * @param path - file to write into, it's created or truncated
+     * @throws IOException if writing failed or Trie is too large for the format
+     */
+    public void writeFrozen(@NotNull Path path) throws IOException {
+        ArrayList<Node> order = new ArrayList<>();
+        order.add(root);
+        for (int i = 0; i < order.size(); i++) {
+            Node node = order.get(i);
+            for (int position = node.nextChild(0); position != -1; position = node.nextChild(position + 1)) {
+                order.add(node.children[position]);
+            }
+        }
+        int edgeCount = order.size() - 1;
+        if (FrozenTrie.HEADER_SIZE + (order.size() + 1L) * FrozenTrie.NODE_SIZE
+                + (long) edgeCount * Character.BYTES > Integer.MAX_VALUE) {
+            throw new IOException("Trie is too large to be frozen");
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(FrozenTrie.MAGIC);
+            out.writeInt(FrozenTrie.VERSION);
+            out.writeInt(order.size());
+            out.writeInt(edgeCount);
+            int firstEdge = 0;
+            for (Node node : order) {
+                out.writeInt(node.size);
+                out.writeInt(firstEdge << 1 | (node.isTerminal ? 1 : 0));
+                firstEdge += node.childCount;
+            }
+            out.writeInt(0);
+            out.writeInt(firstEdge << 1);
+            for (Node node : order) {
+                for (int position = node.nextChild(0); position != -1; position = node.nextChild(position + 1)) {
+                    out.writeChar(node.symbolAt(position));
+                }
+            }
+        }
+    }
 
-        /** HashMap, stored links to ancestors of node */
-        private HashMap<Character, Node> go = new HashMap<>();
+    /**
+     * Reads the nodes written by {@link #serialize(OutputStream)}
+     * @return the root of the read trie
+     * @throws IOException if reading from stream failed or it doesn't contain a Trie
+     */
+    private static Node read(DataInputStream stream) throws IOException {
+        if (stream.readInt() != FORMAT_MAGIC) {
+            throw new IOException("Not a Trie stream");
+        }
+        int version = readVarint(stream);
+        if (version < 1 || version > FORMAT_VERSION) {
+            throw new IOException("Unsupported Trie format version " + version);
+        }
+        Node[] nodes = new Node[16];
+        int[] remaining = new int[16];
+        int[] lastSymbols = new int[16];
+        Node root = new Node();
+        remaining[0] = readNodeHeader(stream, root, version);
+        lastSymbols[0] = -1;
+        nodes[0] = root;
+        int depth = 1;
+        while (depth > 0) {
+            Node node = nodes[depth - 1];
+            if (remaining[depth - 1] == 0) {
+                depth--;
+                if (depth > 0) {
+                    nodes[depth - 1].size += node.size;
+                    nodes[depth - 1].maxWeight = Math.max(nodes[depth - 1].maxWeight, node.maxWeight);
+                }
+                continue;
+            }
+            remaining[depth - 1]--;
+            int delta = readVarint(stream);
+            int symbol = lastSymbols[depth - 1] == -1 ? delta : lastSymbols[depth - 1] + delta;
+            if (symbol <= lastSymbols[depth - 1] || symbol > Character.MAX_VALUE) {
+                throw new IOException("Corrupted Trie stream");
+            }
+            lastSymbols[depth - 1] = symbol;
+            Node child = new Node();
+            node.setChild((char) symbol, child);
+            if (depth == nodes.length) {
+                nodes = Arrays.copyOf(nodes, depth * 2);
+                remaining = Arrays.copyOf(remaining, depth * 2);
+                lastSymbols = Arrays.copyOf(lastSymbols, depth * 2);
+            }
+            nodes[depth] = child;
+            remaining[depth] = readNodeHeader(stream, child, version);
+            lastSymbols[depth] = -1;
+            depth++;
+        }
+        return root;
+    }
+
+    /** Writes the node header and the weight of the terminal node */
+    private static void writeNodeHeader(DataOutputStream stream, Node node) throws IOException {
+        writeVarint(stream, node.childCount << 1 | (node.isTerminal ? 1 : 0));
+        if (node.isTerminal) {
+            writeVarlong(stream, node.weight << 1 ^ node.weight >> 63);
+        }
+    }
+
+    /**
+     * Reads the node header and sets the terminal flag and the weight of the node
+     * @return the number of children of the node
+     */
+    private static int readNodeHeader(DataInputStream stream, Node node, int version) throws IOException {
+        int header = readVarint(stream);
+        node.isTerminal = (header & 1) != 0;
+        node.size = node.isTerminal ? 1 : 0;
+        if (node.isTerminal && version >= 2) {
+            long zigzag = readVarlong(stream);
+            node.weight = zigzag >>> 1 ^ -(zigzag & 1);
+        }
+        node.maxWeight = node.isTerminal ? node.weight : Long.MIN_VALUE;
+        return header >>> 1;
+    }
+
+    /**
+     * Reads the legacy format, where every node is written by a new ObjectOutputStream:
+     * terminal flag, size, number of children, and then the children each preceded by its symbol.
+     * Sizes are recomputed instead of being trusted
+     * @return the root of the read trie
+     * @throws IOException if reading from stream failed or it doesn't contain a Trie
+     */
+    private static Node readLegacy(InputStream in) throws IOException {
+        Node[] nodes = new Node[16];
+        ObjectInputStream[] streams = new ObjectInputStream[16];
+        int[] remaining = new int[16];
+        Node root = new Node();
+        streams[0] = new ObjectInputStream(in);
+        remaining[0] = readLegacyNodeHeader(streams[0], root);
+        nodes[0] = root;
+        int depth = 1;
+        while (depth > 0) {
+            Node node = nodes[depth - 1];
+            if (remaining[depth - 1] == 0) {
+                depth--;
+                if (depth > 0) {
+                    nodes[depth - 1].size += node.size;
+                    nodes[depth - 1].maxWeight = Math.max(nodes[depth - 1].maxWeight, node.maxWeight);
+                }
+                continue;
+            }
+            remaining[depth - 1]--;
+            char symbol = streams[depth - 1].readChar();
+            Node child = new Node();
+            node.setChild(symbol, child);
+            if (depth == nodes.length) {
+                nodes = Arrays.copyOf(nodes, depth * 2);
+                streams = Arrays.copyOf(streams, depth * 2);
+                remaining = Arrays.copyOf(remaining, depth * 2);
+            }
+            nodes[depth] = child;
+            streams[depth] = new ObjectInputStream(in);
+            remaining[depth] = readLegacyNodeHeader(streams[depth], child);
+            depth++;
+        }
+        return root;
+    }
+
+    /**
+     * Reads the legacy node header and sets the terminal flag of the node
+     * @return the number of children of the node
+     */
+    private static int readLegacyNodeHeader(ObjectInputStream stream, Node node) throws IOException {
+        node.isTerminal = stream.readBoolean();
+        node.size = node.isTerminal ? 1 : 0;
+        node.maxWeight = node.isTerminal ? 0 : Long.MIN_VALUE;
+        stream.readInt();
+        int childCount = stream.readInt();
+        if (childCount < 0) {
+            throw new IOException("Corrupted Trie stream");
+        }
+        return childCount;
+    }
+
+    /** Writes non-negative int as unsigned LEB128: 7 bits per byte, the high bit marks continuation */
+    private static void writeVarint(DataOutputStream stream, int value) throws IOException {
+        writeVarlong(stream, value);
+    }
+
+    /** Writes long as unsigned LEB128 */
+    private static void writeVarlong(DataOutputStream stream, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            stream.writeByte((int) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        stream.writeByte((int) value);
+    }
+
+    /**
+     * Reads int written by {@link #writeVarint(DataOutputStream, int)}
+     * @throws IOException if the stream ended or the number is too long
+     */
+    private static int readVarint(DataInputStream stream) throws IOException {
+        long value = readVarlong(stream);
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IOException("Corrupted Trie stream");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Reads long written by {@link #writeVarlong(DataOutputStream, long)}
+     * @throws IOException if the stream ended or the number is too long
+     */
+    private static long readVarlong(DataInputStream stream) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = stream.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupted Trie stream");
+    }
+
+    /**
+     * Class to store trie nodes.
+     * Children are stored in parallel arrays of sorted symbols and nodes (binary search by symbol),
+     * a node with many children of close symbols switches to a dense array indexed by symbol - base
+     */
+    private static class Node implements Serializable {
+
+        /** Sparse node with more children becomes dense, if the range of its symbols is small enough */
+        private static final int SPARSE_LIMIT = 16;
+
+        /** Maximal length of the dense array */
+        private static final int DENSE_RANGE_LIMIT = 128;
+
+        private static final char[] NO_SYMBOLS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        /** Sorted symbols of the edges to children, or null if the node is dense */
+        private char[] symbols = NO_SYMBOLS;
+
+        /** Children: in the order of symbols for sparse node, by symbol - base for dense one */
+        private Node[] children = NO_CHILDREN;
+
+        /** Number of children */
+        private int childCount = 0;
+
+        /** Symbol of the first position of the dense array */
+        private char base;
 
         /** Is node terminal or not */
         private boolean isTerminal = false;
@@ -128,51 +804,157 @@ public class Trie implements Serializable {
         /** Number of terminal nodes in subtree (including this node) */
         private int size = 0;
 
+        /** Weight of the string ending in this node, if it's terminal */
+        private long weight = 0;
+
+        /** Maximal weight of the strings in subtree or Long.MIN_VALUE if there are none */
+        private long maxWeight = Long.MIN_VALUE;
+
         /**
          * Goes by the edge of Trie.
          * If there's no such edge, creates a new Node
          */
-        private Node go(Character symbol) {
-            if (!go.containsKey(symbol)) {
-                go.put(symbol, new Node());
+        private Node go(char symbol) {
+            Node child = get(symbol);
+            if (child == null) {
+                child = new Node();
+                setChild(symbol, child);
             }
-            return go.get(symbol);
+            return child;
         }
 
         /**
-         * Serialize Node into OutputStream
-         * @param out - OutputStream to write into
-         * @throws IOException if writing into stream failed
+         * Goes by the edge of Trie without creating nodes
+         * @return the child by the symbol or null if there's no such edge
          */
-        private void serialize(OutputStream out) throws IOException {
-            ObjectOutputStream stream = new ObjectOutputStream(out);
-            stream.writeBoolean(isTerminal);
-            stream.writeInt(size);
-            stream.writeInt(go.size());
-            stream.flush();
-            for (Map.Entry<Character, Node> entry : go.entrySet()) {
-                stream.writeChar(entry.getKey());
-                stream.flush();
-                entry.getValue().serialize(out);
+        private Node get(char symbol) {
+            if (symbols == null) {
+                int index = symbol - base;
+                return index >= 0 && index < children.length ? children[index] : null;
+            }
+            int index = Arrays.binarySearch(symbols, 0, childCount, symbol);
+            return index >= 0 ? children[index] : null;
+        }
+
+        /** Sets the child by the symbol, replacing the existing one */
+        private void setChild(char symbol, Node child) {
+            if (symbols == null) {
+                int low = Math.min(base, symbol);
+                int high = Math.max(base + children.length - 1, symbol);
+                if (high - low + 1 > DENSE_RANGE_LIMIT) {
+                    toSparse();
+                } else {
+                    if (low < base || high >= base + children.length) {
+                        Node[] newChildren = new Node[high - low + 1];
+                        System.arraycopy(children, 0, newChildren, base - low, children.length);
+                        children = newChildren;
+                        base = (char) low;
+                    }
+                    if (children[symbol - base] == null) {
+                        childCount++;
+                    }
+                    children[symbol - base] = child;
+                    return;
+                }
+            }
+            int index = Arrays.binarySearch(symbols, 0, childCount, symbol);
+            if (index >= 0) {
+                children[index] = child;
+                return;
+            }
+            index = -index - 1;
+            if (childCount == symbols.length) {
+                int newLength = Math.max(2, childCount + (childCount >> 1));
+                symbols = Arrays.copyOf(symbols, newLength);
+                children = Arrays.copyOf(children, newLength);
+            }
+            System.arraycopy(symbols, index, symbols, index + 1, childCount - index);
+            System.arraycopy(children, index, children, index + 1, childCount - index);
+            symbols[index] = symbol;
+            children[index] = child;
+            childCount++;
+            if (childCount > SPARSE_LIMIT && symbols[childCount - 1] - symbols[0] < DENSE_RANGE_LIMIT) {
+                toDense();
+            }
+        }
+
+        /** Removes the child by the symbol, if there's one */
+        private void removeChild(char symbol) {
+            if (symbols == null) {
+                int index = symbol - base;
+                if (index >= 0 && index < children.length && children[index] != null) {
+                    children[index] = null;
+                    childCount--;
+                    if (childCount <= SPARSE_LIMIT / 2) {
+                        toSparse();
+                    }
+                }
+                return;
+            }
+            int index = Arrays.binarySearch(symbols, 0, childCount, symbol);
+            if (index < 0) {
+                return;
+            }
+            System.arraycopy(symbols, index + 1, symbols, index, childCount - index - 1);
+            System.arraycopy(children, index + 1, children, index, childCount - index - 1);
+            childCount--;
+            children[childCount] = null;
+            if (childCount == 0) {
+                symbols = NO_SYMBOLS;
+                children = NO_CHILDREN;
             }
         }
 
+        private void toDense() {
+            Node[] dense = new Node[symbols[childCount - 1] - symbols[0] + 1];
+            for (int i = 0; i < childCount; i++) {
+                dense[symbols[i] - symbols[0]] = children[i];
+            }
+            base = symbols[0];
+            children = dense;
+            symbols = null;
+        }
+
+        private void toSparse() {
+            char[] newSymbols = new char[childCount];
+            Node[] newChildren = new Node[childCount];
+            int count = 0;
+            for (int i = 0; i < children.length; i++) {
+                if (children[i] != null) {
+                    newSymbols[count] = (char) (base + i);
+                    newChildren[count] = children[i];
+                    count++;
+                }
+            }
+            symbols = newSymbols;
+            children = newChildren;
+        }
+
         /**
-         * Deserialize Node from InputStream
-         * @param in - InputStream to read from
-         * @throws IOException if reading from stream failed
+         * Finds the position of the next child in the children array
+         * @return the first position not less than given one, which has a child, or -1 if there's no such position
          */
-        private void deserialize(InputStream in) throws IOException {
-            ObjectInputStream stream = new ObjectInputStream(in);
-            isTerminal = stream.readBoolean();
-            size = stream.readInt();
-            int goSize = stream.readInt();
-            for (int i = 0; i < goSize; i++) {
-                Character symbol = stream.readChar();
-                Node node = new Node();
-                node.deserialize(in);
-                go.put(symbol, node);
+        private int nextChild(int position) {
+            if (symbols != null) {
+                return position < childCount ? position : -1;
             }
+            while (position < children.length && children[position] == null) {
+                position++;
+            }
+            return position < children.length ? position : -1;
+        }
+
+        /** Sets the maximal weight by the weight of this node and the maximal weights of the children */
+        private void recomputeMaxWeight() {
+            maxWeight = isTerminal ? weight : Long.MIN_VALUE;
+            for (int i = nextChild(0); i != -1; i = nextChild(i + 1)) {
+                maxWeight = Math.max(maxWeight, children[i].maxWeight);
+            }
+        }
+
+        /** Gets the symbol of the edge to the child at given position of the children array */
+        private char symbolAt(int position) {
+            return symbols != null ? symbols[position] : (char) (base + position);
         }
     }
 }
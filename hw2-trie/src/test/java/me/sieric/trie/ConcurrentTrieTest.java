@@ -0,0 +1,123 @@
+package me.sieric.trie;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentTrieTest {
+
+    private static final int THREADS = 8;
+
+    private ConcurrentTrie t = new ConcurrentTrie();
+
+    private void fill() {
+        t.add("a");
+        t.add("ab");
+        t.add("ac");
+        t.add("bebebe");
+        t.add("Sasha Top");
+        t.add("❤️");
+    }
+
+    /** Runs the task in THREADS threads started at the same moment */
+    private void runConcurrently(ThreadTask task) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        ArrayList<Thread> threads = new ArrayList<>();
+        ArrayList<Throwable> errors = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            int number = i;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    task.run(number);
+                } catch (Throwable e) {
+                    synchronized (errors) {
+                        errors.add(e);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(errors.isEmpty(), errors.toString());
+    }
+
+    private interface ThreadTask {
+        void run(int number) throws Exception;
+    }
+
+    @Test
+    void testAddAndContains() {
+        fill();
+        assertEquals(t.size(), 6);
+        assertFalse(t.add("a"));
+        assertTrue(t.contains("ab"));
+        assertTrue(t.contains("❤️"));
+        assertFalse(t.contains("bebe"));
+        assertFalse(t.contains(""));
+        assertEquals(t.howManyStartWithPrefix("a"), 3);
+        assertEquals(t.howManyStartWithPrefix("kek"), 0);
+    }
+
+    @Test
+    void testRemove() {
+        fill();
+        assertTrue(t.remove("a"));
+        assertFalse(t.remove("a"));
+        assertFalse(t.remove("kek"));
+        assertFalse(t.contains("a"));
+        assertTrue(t.contains("ab"));
+        assertEquals(t.howManyStartWithPrefix("a"), 2);
+        assertEquals(t.size(), 5);
+    }
+
+    @Test
+    void testConcurrentAdds() throws InterruptedException {
+        AtomicInteger added = new AtomicInteger();
+        runConcurrently(number -> {
+            for (int i = 0; i < 20000; i++) {
+                if (t.add(Integer.toString((i * 31 + number * 7) % 30000))) {
+                    added.incrementAndGet();
+                }
+            }
+        });
+        assertEquals(t.size(), added.get());
+        int count = 0;
+        for (int i = 0; i < 30000; i++) {
+            if (t.contains(Integer.toString(i))) {
+                count++;
+            }
+        }
+        assertEquals(count, added.get());
+        assertEquals(t.howManyStartWithPrefix(""), added.get());
+    }
+
+    @Test
+    void testConcurrentAddsAndRemoves() throws InterruptedException {
+        for (int i = 0; i < 1000; i++) {
+            t.add("stable" + i);
+        }
+        runConcurrently(number -> {
+            for (int i = 0; i < 20000; i++) {
+                String s = Integer.toString(i % 500);
+                if (number % 2 == 0) {
+                    t.add(s);
+                    t.remove(s);
+                } else {
+                    assertTrue(t.contains("stable" + i % 1000));
+                }
+            }
+        });
+        assertEquals(t.size(), 1000);
+        assertEquals(t.howManyStartWithPrefix("stable"), 1000);
+        assertEquals(t.howManyStartWithPrefix("1"), 0);
+    }
+}
@@ -0,0 +1,93 @@
+package me.sieric.trie;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrozenTrieTest {
+
+    private Path file;
+
+    private Trie t = new Trie();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempFile("trie", ".frozen");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private void fill() {
+        t.add("a");
+        t.add("ab");
+        t.add("ac");
+        t.add("bebebe");
+        t.add("Sasha Top");
+        t.add("❤️");
+    }
+
+    @Test
+    void testEmptyTrie() throws IOException {
+        t.writeFrozen(file);
+        FrozenTrie frozen = FrozenTrie.open(file);
+        assertEquals(frozen.size(), 0);
+        assertFalse(frozen.contains(""));
+        assertFalse(frozen.contains("a"));
+        assertEquals(frozen.howManyStartWithPrefix(""), 0);
+    }
+
+    @Test
+    void testFrozenTrie() throws IOException {
+        fill();
+        t.writeFrozen(file);
+        FrozenTrie frozen = FrozenTrie.open(file);
+        assertEquals(frozen.size(), 6);
+        assertTrue(frozen.contains("a"));
+        assertTrue(frozen.contains("ab"));
+        assertTrue(frozen.contains("ac"));
+        assertTrue(frozen.contains("bebebe"));
+        assertTrue(frozen.contains("Sasha Top"));
+        assertTrue(frozen.contains("❤️"));
+        assertFalse(frozen.contains("bebe"));
+        assertFalse(frozen.contains("ad"));
+        assertFalse(frozen.contains(""));
+        assertEquals(frozen.howManyStartWithPrefix("a"), 3);
+        assertEquals(frozen.howManyStartWithPrefix("Sasha"), 1);
+        assertEquals(frozen.howManyStartWithPrefix("kek"), 0);
+    }
+
+    @Test
+    void testWideTrie() throws IOException {
+        for (int i = 0; i < 2000; i++) {
+            t.add(Integer.toString(i * 7919));
+        }
+        t.writeFrozen(file);
+        FrozenTrie frozen = FrozenTrie.open(file);
+        assertEquals(frozen.size(), 2000);
+        for (int i = 0; i < 2000; i++) {
+            assertTrue(frozen.contains(Integer.toString(i * 7919)));
+            assertFalse(frozen.contains(Integer.toString(i * 7919 + 1)));
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(frozen.howManyStartWithPrefix(Integer.toString(i)),
+                    t.howManyStartWithPrefix(Integer.toString(i)));
+        }
+    }
+
+    @Test
+    void testNotFrozenTrie() throws IOException {
+        Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+        assertThrows(IOException.class, () -> FrozenTrie.open(file));
+        Files.write(file, new byte[0]);
+        assertThrows(IOException.class, () -> FrozenTrie.open(file));
+    }
+}
@@ -0,0 +1,121 @@
+package me.sieric.trie;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RadixTrieTest {
+
+    private RadixTrie t = new RadixTrie();
+
+    private void fill() {
+        t.add("a");
+        t.add("ab");
+        t.add("ac");
+        t.add("bebebe");
+        t.add("Sasha Top");
+        t.add("❤️");
+    }
+
+    @Test
+    void testAdd() {
+        assertTrue(t.add("kek"));
+        assertFalse(t.add("kek"));
+        assertTrue(t.add("ke"));
+        assertTrue(t.add("kekos"));
+        assertTrue(t.add(""));
+        assertEquals(t.size(), 4);
+    }
+
+    @Test
+    void testContains() {
+        fill();
+        assertTrue(t.contains("a"));
+        assertTrue(t.contains("bebebe"));
+        assertTrue(t.contains("❤️"));
+        assertFalse(t.contains("bebe"));
+        assertFalse(t.contains("bebebebe"));
+        assertFalse(t.contains("Sasha"));
+        assertFalse(t.contains(""));
+    }
+
+    @Test
+    void testRemove() {
+        fill();
+        assertTrue(t.remove("a"));
+        assertFalse(t.remove("a"));
+        assertFalse(t.contains("a"));
+        assertTrue(t.contains("ab"));
+        assertTrue(t.remove("ab"));
+        assertTrue(t.contains("ac"));
+        assertFalse(t.remove("Sasha"));
+        assertEquals(t.size(), 4);
+    }
+
+    @Test
+    void testHowManyStartWithPrefix() {
+        fill();
+        assertEquals(t.howManyStartWithPrefix("a"), 3);
+        assertEquals(t.howManyStartWithPrefix("beb"), 1);
+        assertEquals(t.howManyStartWithPrefix("Sasha T"), 1);
+        assertEquals(t.howManyStartWithPrefix("Sasha X"), 0);
+        assertEquals(t.howManyStartWithPrefix(""), 6);
+        assertEquals(t.howManyStartWithPrefix("abc"), 0);
+    }
+
+    @Test
+    void testChainsAreCompressed() {
+        String prefix = "https://example.com/some/very/long/path/";
+        for (int i = 0; i < 10; i++) {
+            t.add(prefix + i);
+        }
+        assertEquals(t.nodeCount(), 12);
+        assertEquals(t.howManyStartWithPrefix("https://example"), 10);
+        for (int i = 0; i < 9; i++) {
+            assertTrue(t.remove(prefix + i));
+        }
+        assertEquals(t.nodeCount(), 2);
+        assertTrue(t.contains(prefix + 9));
+        assertFalse(t.contains(prefix));
+    }
+
+    @Test
+    void testRemoveEverything() {
+        fill();
+        t.add("");
+        for (String s : new String[] {"", "a", "ab", "ac", "bebebe", "Sasha Top", "❤️"}) {
+            assertTrue(t.remove(s));
+        }
+        assertEquals(t.size(), 0);
+        assertEquals(t.nodeCount(), 1);
+    }
+
+    @Test
+    void testRandomAgainstHashSet() {
+        Random random = new Random(42);
+        HashSet<String> expected = new HashSet<>();
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder builder = new StringBuilder();
+            int length = random.nextInt(6);
+            for (int j = 0; j < length; j++) {
+                builder.append((char) ('a' + random.nextInt(3)));
+            }
+            String s = builder.toString();
+            if (random.nextInt(3) == 0) {
+                assertEquals(t.remove(s), expected.remove(s));
+            } else {
+                assertEquals(t.add(s), expected.add(s));
+            }
+            assertEquals(t.size(), expected.size());
+            String prefix = s.substring(0, s.length() / 2);
+            assertEquals(t.howManyStartWithPrefix(prefix),
+                    expected.stream().filter(string -> string.startsWith(prefix)).count());
+        }
+        for (String s : expected) {
+            assertTrue(t.contains(s));
+        }
+    }
+}
@@ -3,6 +3,8 @@ package me.sieric.trie;
 import org.junit.jupiter.api.Test;
 
 import java.io.*;
+import java.util.*;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -68,6 +70,133 @@ class TrieTest {
         assertFalse(t.contains("bebebe"));
     }
 
+    @Test
+    void testSizeAfterRemove() {
+        fill();
+        assertTrue(t.remove("ab"));
+        assertEquals(t.size(), 5);
+        assertEquals(t.howManyStartWithPrefix("a"), 2);
+        assertFalse(t.remove("ab"));
+        assertEquals(t.size(), 5);
+    }
+
+    @Test
+    void testSizeOfPrefixAddedAfterLongerString() {
+        t.add("abc");
+        t.add("a");
+        assertEquals(t.howManyStartWithPrefix("a"), 2);
+        assertTrue(t.remove("a"));
+        assertEquals(t.howManyStartWithPrefix("a"), 1);
+        assertTrue(t.contains("abc"));
+    }
+
+    @Test
+    void testLookupsDoNotChangeTrie() throws IOException {
+        fill();
+        ByteArrayOutputStream before = new ByteArrayOutputStream();
+        t.serialize(before);
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(t.contains("kek" + i));
+            assertEquals(t.howManyStartWithPrefix("lol" + i), 0);
+            assertFalse(t.remove("bebe" + i));
+        }
+        ByteArrayOutputStream after = new ByteArrayOutputStream();
+        t.serialize(after);
+        assertArrayEquals(before.toByteArray(), after.toByteArray());
+    }
+
+    @Test
+    void testRemoveDeletesEmptyBranches() throws IOException {
+        ByteArrayOutputStream empty = new ByteArrayOutputStream();
+        t.serialize(empty);
+        t.add("kek");
+        t.add("kekos");
+        t.remove("kekos");
+        t.remove("kek");
+        ByteArrayOutputStream afterRemove = new ByteArrayOutputStream();
+        t.serialize(afterRemove);
+        assertArrayEquals(empty.toByteArray(), afterRemove.toByteArray());
+    }
+
+    @Test
+    void testWideNode() {
+        for (char symbol = 'a'; symbol <= 'z'; symbol++) {
+            assertTrue(t.add("x" + symbol));
+        }
+        for (char symbol = 'a'; symbol <= 'z'; symbol++) {
+            assertTrue(t.contains("x" + symbol));
+        }
+        assertFalse(t.contains("xA"));
+        assertTrue(t.add("x❤"));
+        assertTrue(t.add("xA"));
+        assertTrue(t.contains("x❤"));
+        assertTrue(t.contains("xm"));
+        assertEquals(t.howManyStartWithPrefix("x"), 28);
+        for (char symbol = 'a'; symbol <= 'z'; symbol++) {
+            assertTrue(t.remove("x" + symbol));
+        }
+        assertFalse(t.contains("xm"));
+        assertTrue(t.contains("x❤"));
+        assertTrue(t.contains("xA"));
+        assertEquals(t.size(), 2);
+    }
+
+    @Test
+    void testWideNodeSerialization() throws IOException {
+        for (char symbol = '0'; symbol <= 'z'; symbol++) {
+            t.add(Character.toString(symbol));
+        }
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        t.serialize(buf);
+        Trie t2 = new Trie();
+        t2.deserialize(new ByteArrayInputStream(buf.toByteArray()));
+        for (char symbol = '0'; symbol <= 'z'; symbol++) {
+            assertTrue(t2.contains(Character.toString(symbol)));
+        }
+        assertEquals(t2.size(), 'z' - '0' + 1);
+    }
+
+    @Test
+    void testRandomAgainstHashSet() {
+        Random random = new Random(42);
+        HashSet<String> expected = new HashSet<>();
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder builder = new StringBuilder();
+            int length = random.nextInt(4);
+            for (int j = 0; j < length; j++) {
+                builder.append((char) (random.nextBoolean() ? 'a' + random.nextInt(40) : 1000 + random.nextInt(300)));
+            }
+            String s = builder.toString();
+            if (random.nextInt(3) == 0) {
+                assertEquals(t.remove(s), expected.remove(s));
+            } else {
+                assertEquals(t.add(s), expected.add(s));
+            }
+            assertEquals(t.size(), expected.size());
+        }
+        for (String s : expected) {
+            assertTrue(t.contains(s));
+        }
+    }
+
+    @Test
+    void testVeryLongString() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            builder.append((char) ('a' + i % 26));
+        }
+        String s = builder.toString();
+        assertTrue(t.add(s));
+        assertTrue(t.add(s.substring(0, 50000)));
+        assertTrue(t.contains(s));
+        assertEquals(t.howManyStartWithPrefix(s.substring(0, 40000)), 2);
+        assertTrue(t.remove(s));
+        assertFalse(t.contains(s));
+        assertEquals(t.howManyStartWithPrefix(s.substring(0, 60000)), 0);
+        assertTrue(t.remove(s.substring(0, 50000)));
+        assertEquals(t.size(), 0);
+    }
+
     @Test
     void testRemoveStringNotContainsINTrie() {
         fill();
@@ -110,6 +239,181 @@ class TrieTest {
         assertEquals(t.howManyStartWithPrefix(""), 6);
     }
 
+    @Test
+    void testStartingWith() {
+        fill();
+        ArrayList<String> strings = new ArrayList<>();
+        t.startingWith("").forEachRemaining(strings::add);
+        assertEquals(strings, Arrays.asList("Sasha Top", "a", "ab", "ac", "bebebe", "❤️"));
+        strings.clear();
+        t.startingWith("a").forEachRemaining(strings::add);
+        assertEquals(strings, Arrays.asList("a", "ab", "ac"));
+        strings.clear();
+        t.startingWith("be").forEachRemaining(strings::add);
+        assertEquals(strings, Collections.singletonList("bebebe"));
+        assertFalse(t.startingWith("kek").hasNext());
+        assertThrows(NoSuchElementException.class, () -> t.startingWith("kek").next());
+    }
+
+    @Test
+    void testStartingWithIsFailFast() {
+        fill();
+        Iterator<String> iterator = t.startingWith("");
+        iterator.next();
+        t.add("kek");
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+    }
+
+    @Test
+    void testTopK() {
+        t.add("car", 10);
+        t.add("cat", 50);
+        t.add("cart", 30);
+        t.add("care", 30);
+        t.add("dog", 100);
+        t.add("c");
+        assertEquals(t.topK("c", 3), Arrays.asList("cat", "care", "cart"));
+        assertEquals(t.topK("", 2), Arrays.asList("dog", "cat"));
+        assertEquals(t.topK("car", 10), Arrays.asList("care", "cart", "car"));
+        assertEquals(t.topK("c", 10).size(), 5);
+        assertTrue(t.topK("x", 5).isEmpty());
+        assertTrue(t.topK("c", 0).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> t.topK("c", -1));
+    }
+
+    @Test
+    void testTopKAfterChanges() {
+        t.add("cat", 50);
+        t.add("car", 10);
+        t.add("dog", 20);
+        assertFalse(t.add("cat", 5));
+        assertEquals(t.topK("", 1), Collections.singletonList("dog"));
+        assertFalse(t.add("cat"));
+        assertEquals(t.topK("c", 1), Collections.singletonList("car"));
+        assertTrue(t.remove("car"));
+        assertTrue(t.remove("dog"));
+        assertEquals(t.topK("", 3), Collections.singletonList("cat"));
+    }
+
+    @Test
+    void testTopKAgainstSorting() {
+        Random random = new Random(42);
+        HashMap<String, Long> weights = new HashMap<>();
+        for (int i = 0; i < 3000; i++) {
+            String s = Integer.toString(random.nextInt(5000), 7);
+            long weight = random.nextInt(100);
+            if (random.nextInt(4) == 0) {
+                t.remove(s);
+                weights.remove(s);
+            } else {
+                t.add(s, weight);
+                weights.put(s, weight);
+            }
+        }
+        for (String prefix : new String[] {"", "1", "23", "456"}) {
+            List<String> expected = weights.keySet().stream()
+                    .filter(s -> s.startsWith(prefix))
+                    .sorted(Comparator.comparing((String s) -> -weights.get(s)).thenComparing(s -> s))
+                    .limit(20)
+                    .collect(Collectors.toList());
+            assertEquals(t.topK(prefix, 20), expected);
+        }
+    }
+
+    @Test
+    void testFromSorted() {
+        Trie sorted = Trie.fromSorted(Arrays.asList("", "Sasha Top", "a", "a", "ab", "abc", "ac", "bebebe", "❤️").iterator());
+        assertEquals(sorted.size(), 8);
+        assertTrue(sorted.contains(""));
+        assertTrue(sorted.contains("a"));
+        assertTrue(sorted.contains("abc"));
+        assertTrue(sorted.contains("❤️"));
+        assertFalse(sorted.contains("b"));
+        assertEquals(sorted.howManyStartWithPrefix("ab"), 2);
+        assertEquals(sorted.howManyStartWithPrefix("a"), 4);
+        assertTrue(sorted.remove("abc"));
+        assertTrue(sorted.add("abd"));
+        assertEquals(sorted.howManyStartWithPrefix("ab"), 2);
+        assertEquals(sorted.topK("a", 1), Collections.singletonList("a"));
+    }
+
+    @Test
+    void testFromSortedAgainstAdd() throws IOException {
+        Random random = new Random(42);
+        TreeSet<String> strings = new TreeSet<>();
+        for (int i = 0; i < 5000; i++) {
+            String s = Integer.toString(random.nextInt(100000), 5 + random.nextInt(30));
+            strings.add(s);
+            t.add(s);
+        }
+        Trie sorted = Trie.fromSorted(strings.iterator());
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        t.serialize(expected);
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        sorted.serialize(actual);
+        assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+    }
+
+    @Test
+    void testFromSortedUnsorted() {
+        assertThrows(IllegalArgumentException.class, () -> Trie.fromSorted(Arrays.asList("b", "a").iterator()));
+        assertThrows(IllegalArgumentException.class, () -> Trie.fromSorted(Arrays.asList("a", null).iterator()));
+    }
+
+    /** Counts the edit distance by the whole table */
+    private static int levenshtein(String a, String b) {
+        int[][] distance = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            for (int j = 0; j <= b.length(); j++) {
+                if (i == 0 || j == 0) {
+                    distance[i][j] = i + j;
+                } else {
+                    distance[i][j] = Math.min(distance[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1),
+                            Math.min(distance[i - 1][j], distance[i][j - 1]) + 1);
+                }
+            }
+        }
+        return distance[a.length()][b.length()];
+    }
+
+    @Test
+    void testFuzzyMatches() {
+        fill();
+        t.add("abc");
+        assertEquals(t.fuzzyMatches("ab", 0), Collections.singletonList("ab"));
+        assertEquals(t.fuzzyMatches("ab", 1), Arrays.asList("a", "ab", "abc", "ac"));
+        assertEquals(t.fuzzyMatches("bebeb", 1), Collections.singletonList("bebebe"));
+        assertEquals(t.fuzzyMatches("Sasa Tpo", 3), Collections.singletonList("Sasha Top"));
+        assertTrue(t.fuzzyMatches("Sasa Tpo", 2).isEmpty());
+        assertTrue(t.fuzzyMatches("kek", 1).isEmpty());
+        assertEquals(t.fuzzyMatches("", 1), Collections.singletonList("a"));
+        assertEquals(t.fuzzyMatches("kek", Integer.MAX_VALUE).size(), t.size());
+        assertThrows(IllegalArgumentException.class, () -> t.fuzzyMatches("a", -1));
+    }
+
+    @Test
+    void testFuzzyMatchesAgainstBruteForce() {
+        Random random = new Random(42);
+        TreeSet<String> strings = new TreeSet<>();
+        for (int i = 0; i < 2000; i++) {
+            String s = Integer.toString(random.nextInt(1000000), 4);
+            strings.add(s);
+            t.add(s);
+        }
+        t.add("");
+        strings.add("");
+        for (int i = 0; i < 20; i++) {
+            String query = Integer.toString(random.nextInt(1000000), 4);
+            for (int maxEdits = 0; maxEdits <= 4; maxEdits++) {
+                int edits = maxEdits;
+                List<String> expected = strings.stream()
+                        .filter(s -> levenshtein(s, query) <= edits)
+                        .collect(Collectors.toList());
+                assertEquals(t.fuzzyMatches(query, maxEdits), expected);
+            }
+        }
+    }
+
     @Test
     void testSerializationOfEmptyTrie() {
         ByteArrayOutputStream buf = new ByteArrayOutputStream();
@@ -197,32 +501,101 @@ class TrieTest {
         t.add("ac");
         ByteArrayOutputStream buf = new ByteArrayOutputStream();
         assertDoesNotThrow(() -> t.serialize(buf));
-        ByteArrayInputStream in = new ByteArrayInputStream(buf.toByteArray());
-        ObjectInputStream stream2, stream3, stream4, stream = new ObjectInputStream(in);
-
-        assertFalse(stream.readBoolean());
-        assertEquals(stream.readInt(), 3);
-        assertEquals(stream.readInt(), 1);
+        DataInputStream stream = new DataInputStream(new ByteArrayInputStream(buf.toByteArray()));
+
+        assertEquals(stream.readInt(), Trie.FORMAT_MAGIC);
+        assertEquals(stream.readByte(), Trie.FORMAT_VERSION);
+
+        assertEquals(stream.readByte(), 1 << 1);
+        assertEquals(stream.readByte(), 'a');
+        assertEquals(stream.readByte(), 2 << 1 | 1);
+        assertEquals(stream.readByte(), 0);
+        assertEquals(stream.readByte(), 'b');
+        assertEquals(stream.readByte(), 1);
+        assertEquals(stream.readByte(), 0);
+        assertEquals(stream.readByte(), 'c' - 'b');
+        assertEquals(stream.readByte(), 1);
+        assertEquals(stream.readByte(), 0);
+        assertEquals(stream.read(), -1);
+    }
 
-        assertEquals(stream.readChar(), 'a');
+    @Test
+    void testDeserializeVersionWithoutWeights() throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        DataOutputStream stream = new DataOutputStream(buf);
+        stream.writeInt(Trie.FORMAT_MAGIC);
+        stream.write(new byte[] {1, 1 << 1, 'a', 2 << 1 | 1, 'b', 1, 'c' - 'b', 1});
+        t.deserialize(new ByteArrayInputStream(buf.toByteArray()));
+        assertEquals(t.size(), 3);
+        assertTrue(t.contains("a"));
+        assertTrue(t.contains("ab"));
+        assertTrue(t.contains("ac"));
+    }
 
-        stream2 = new ObjectInputStream(in);
+    @Test
+    void testSerializationOfWeights() throws IOException {
+        t.add("a", -5);
+        t.add("ab", Long.MAX_VALUE);
+        t.add("ac", Long.MIN_VALUE);
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        t.serialize(buf);
+        Trie newT = new Trie();
+        newT.deserialize(new ByteArrayInputStream(buf.toByteArray()));
+        assertEquals(newT.topK("", 3), Arrays.asList("ab", "a", "ac"));
+    }
 
-        assertTrue(stream2.readBoolean());
-        assertEquals(stream2.readInt(), 3);
-        assertEquals(stream2.readInt(), 2);
+    @Test
+    void testDeserializeReplacesContent() throws IOException {
+        t.add("a");
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        t.serialize(buf);
+        Trie newT = new Trie();
+        newT.add("kek");
+        newT.deserialize(new ByteArrayInputStream(buf.toByteArray()));
+        assertEquals(newT.size(), 1);
+        assertFalse(newT.contains("kek"));
+    }
 
-        assertEquals(stream2.readChar(), 'b');
-        stream3 = new ObjectInputStream(in);
-        assertTrue(stream3.readBoolean());
-        assertEquals(stream3.readInt(), 1);
-        assertEquals(stream3.readInt(), 0);
+    @Test
+    void testSerializationOfWideSymbols() throws IOException {
+        t.add("\u0000");
+        t.add("\uffff");
+        t.add("❤️");
+        t.add("Sasha Top");
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        t.serialize(buf);
+        Trie newT = new Trie();
+        newT.deserialize(new ByteArrayInputStream(buf.toByteArray()));
+        assertEquals(newT.size(), 4);
+        assertTrue(newT.contains("\u0000"));
+        assertTrue(newT.contains("\uffff"));
+        assertTrue(newT.contains("❤️"));
+        assertTrue(newT.contains("Sasha Top"));
+        assertEquals(newT.howManyStartWithPrefix("S"), 1);
+    }
 
-        assertEquals(stream2.readChar(), 'c');
+    @Test
+    void testSerializationOfDeepTrie() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            builder.append((char) ('a' + i % 26));
+        }
+        String s = builder.toString();
+        t.add(s);
+        t.add(s.substring(0, 500));
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        t.serialize(buf);
+        Trie newT = new Trie();
+        newT.deserialize(new ByteArrayInputStream(buf.toByteArray()));
+        assertTrue(newT.contains(s));
+        assertTrue(newT.contains(s.substring(0, 500)));
+        assertEquals(newT.howManyStartWithPrefix(s.substring(0, 600)), 1);
+        assertEquals(newT.size(), 2);
+    }
 
-        stream4 = new ObjectInputStream(in);
-        assertTrue(stream4.readBoolean());
-        assertEquals(stream4.readInt(), 1);
-        assertEquals(stream4.readInt(), 0);
+    @Test
+    void testDeserializeNotTrie() {
+        assertThrows(IOException.class, () -> t.deserialize(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5})));
+        assertThrows(IOException.class, () -> t.deserialize(new ByteArrayInputStream(new byte[0])));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,155 @@
+package me.sieric.treeset;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ceiling/floor and full iteration of BTreeSet against MyTreeSet and java.util.TreeSet.
+ * The setup also prints the heap taken by each set per element, the keys themselves are shared and not counted
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BTreeSetBenchmark {
+
+    private static final int PROBES = 1024;
+
+    @Param({"1000000"})
+    private int size;
+
+    private BTreeSet<Long> bTreeSet;
+    private MyTreeSet<Long> myTreeSet;
+    private TreeSet<Long> javaTreeSet;
+    private Long[] probes;
+
+    @Setup
+    public void createSets() {
+        Long[] keys = new Long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = 2L * i;
+        }
+        Random random = new Random(23);
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Long key = keys[i];
+            keys[i] = keys[j];
+            keys[j] = key;
+        }
+        probes = new Long[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probes[i] = (long) random.nextInt(2 * size);
+        }
+
+        long before = usedMemory();
+        bTreeSet = new BTreeSet<>();
+        for (Long key : keys) {
+            bTreeSet.add(key);
+        }
+        long afterBTreeSet = usedMemory();
+        myTreeSet = new MyTreeSet<>();
+        for (Long key : keys) {
+            myTreeSet.add(key);
+        }
+        long afterMyTreeSet = usedMemory();
+        javaTreeSet = new TreeSet<>();
+        for (Long key : keys) {
+            javaTreeSet.add(key);
+        }
+        long afterJavaTreeSet = usedMemory();
+        System.out.printf("%nBytes per element: BTreeSet %.1f, MyTreeSet %.1f, TreeSet %.1f%n",
+                (double) (afterBTreeSet - before) / size,
+                (double) (afterMyTreeSet - afterBTreeSet) / size,
+                (double) (afterJavaTreeSet - afterMyTreeSet) / size);
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public long bTreeSetCeilingFloor() {
+        long sum = 0;
+        for (Long probe : probes) {
+            Long ceiling = bTreeSet.ceiling(probe);
+            Long floor = bTreeSet.floor(probe);
+            sum += (ceiling == null ? 0 : ceiling) + (floor == null ? 0 : floor);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public long myTreeSetCeilingFloor() {
+        long sum = 0;
+        for (Long probe : probes) {
+            Long ceiling = myTreeSet.ceiling(probe);
+            Long floor = myTreeSet.floor(probe);
+            sum += (ceiling == null ? 0 : ceiling) + (floor == null ? 0 : floor);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public long javaTreeSetCeilingFloor() {
+        long sum = 0;
+        for (Long probe : probes) {
+            Long ceiling = javaTreeSet.ceiling(probe);
+            Long floor = javaTreeSet.floor(probe);
+            sum += (ceiling == null ? 0 : ceiling) + (floor == null ? 0 : floor);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long bTreeSetIteration() {
+        long sum = 0;
+        for (Long key : bTreeSet) {
+            sum += key;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long myTreeSetIteration() {
+        long sum = 0;
+        for (Long key : myTreeSet) {
+            sum += key;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long javaTreeSetIteration() {
+        long sum = 0;
+        for (Long key : javaTreeSet) {
+            sum += key;
+        }
+        return sum;
+    }
+}
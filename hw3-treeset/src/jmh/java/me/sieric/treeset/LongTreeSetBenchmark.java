@@ -0,0 +1,163 @@
+package me.sieric.treeset;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LongTreeSet against MyTreeSet<Long> and java.util.TreeSet<Long> on epoch millis keys:
+ * loading in random order, floor + ceiling and full iteration.
+ * Keys are kept as longs, so the boxed sets pay for boxing as their callers do
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LongTreeSetBenchmark {
+
+    private static final int PROBES = 1024;
+
+    @Param({"1000000"})
+    private int size;
+
+    private long[] keys;
+    private long[] probes;
+    private LongTreeSet longTreeSet;
+    private MyTreeSet<Long> myTreeSet;
+    private TreeSet<Long> javaTreeSet;
+
+    @Setup
+    public void createSets() {
+        Random random = new Random(25);
+        long start = 1_500_000_000_000L;
+        keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = start + 1000L * i + random.nextInt(1000);
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long key = keys[i];
+            keys[i] = keys[j];
+            keys[j] = key;
+        }
+        probes = new long[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probes[i] = start + (long) (random.nextDouble() * 1000 * size);
+        }
+        longTreeSet = longTreeSetAdd();
+        myTreeSet = myTreeSetAdd();
+        javaTreeSet = javaTreeSetAdd();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public LongTreeSet longTreeSetAdd() {
+        LongTreeSet set = new LongTreeSet();
+        for (long key : keys) {
+            set.add(key);
+        }
+        return set;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public MyTreeSet<Long> myTreeSetAdd() {
+        MyTreeSet<Long> set = new MyTreeSet<>();
+        for (long key : keys) {
+            set.add(key);
+        }
+        return set;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public TreeSet<Long> javaTreeSetAdd() {
+        TreeSet<Long> set = new TreeSet<>();
+        for (long key : keys) {
+            set.add(key);
+        }
+        return set;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public long longTreeSetFloorCeiling() {
+        long sum = 0;
+        for (long probe : probes) {
+            sum += longTreeSet.floor(probe, 0) + longTreeSet.ceiling(probe, 0);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public long myTreeSetFloorCeiling() {
+        long sum = 0;
+        for (long probe : probes) {
+            Long floor = myTreeSet.floor(probe);
+            Long ceiling = myTreeSet.ceiling(probe);
+            sum += (floor == null ? 0 : floor) + (ceiling == null ? 0 : ceiling);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public long javaTreeSetFloorCeiling() {
+        long sum = 0;
+        for (long probe : probes) {
+            Long floor = javaTreeSet.floor(probe);
+            Long ceiling = javaTreeSet.ceiling(probe);
+            sum += (floor == null ? 0 : floor) + (ceiling == null ? 0 : ceiling);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long longTreeSetIteration() {
+        long sum = 0;
+        for (var iterator = longTreeSet.iterator(); iterator.hasNext(); ) {
+            sum += iterator.nextLong();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long myTreeSetIteration() {
+        long sum = 0;
+        for (long key : myTreeSet) {
+            sum += key;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long javaTreeSetIteration() {
+        long sum = 0;
+        for (long key : javaTreeSet) {
+            sum += key;
+        }
+        return sum;
+    }
+}
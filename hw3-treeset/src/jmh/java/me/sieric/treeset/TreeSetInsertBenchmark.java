@@ -0,0 +1,80 @@
+package me.sieric.treeset;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading of MyTreeSet in sorted, reverse sorted and random order, with java.util.TreeSet for reference.
+ * Sorted keys (like timestamps) made the former unbalanced tree a linked list
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TreeSetInsertBenchmark {
+
+    @Param({"1000000"})
+    private int size;
+
+    @Param({"sorted", "reversed", "random"})
+    private String order;
+
+    private Long[] keys;
+
+    @Setup
+    public void createKeys() {
+        keys = new Long[size];
+        long start = 1_500_000_000_000L;
+        for (int i = 0; i < size; i++) {
+            keys[i] = start + i;
+        }
+        if (order.equals("reversed")) {
+            for (int i = 0; i < size / 2; i++) {
+                Long key = keys[i];
+                keys[i] = keys[size - 1 - i];
+                keys[size - 1 - i] = key;
+            }
+        } else if (order.equals("random")) {
+            Random random = new Random(5);
+            for (int i = size - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                Long key = keys[i];
+                keys[i] = keys[j];
+                keys[j] = key;
+            }
+        }
+    }
+
+    @Benchmark
+    public MyTreeSet<Long> myTreeSet() {
+        MyTreeSet<Long> set = new MyTreeSet<>();
+        for (Long key : keys) {
+            set.add(key);
+        }
+        return set;
+    }
+
+    @Benchmark
+    public TreeSet<Long> javaTreeSet() {
+        TreeSet<Long> set = new TreeSet<>();
+        for (Long key : keys) {
+            set.add(key);
+        }
+        return set;
+    }
+}
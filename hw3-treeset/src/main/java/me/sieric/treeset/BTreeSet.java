@@ -0,0 +1,684 @@
+package me.sieric.treeset;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Implementation of MyTreeSetInterface using B+-tree:
+ * keys are stored in wide array-backed leaves linked into a list,
+ * inner nodes keep only separators to route the search,
+ * so there are few levels and keys of a leaf are adjacent in memory
+ * @param <E> - type of the stored keys
+ */
+public class BTreeSet<E> extends AbstractSet<E> implements MyTreeSetInterface<E> {
+
+    /** Maximal number of keys in a node, a node with more keys is split in halves */
+    private static final int MAX_KEYS = 64;
+
+    /** Minimal number of keys in a node except the root, a node with less keys borrows or is merged */
+    private static final int MIN_KEYS = MAX_KEYS / 2;
+
+    /** B+-tree to store elements */
+    private Tree tree;
+    /** Flag, indicates if order is descending*/
+    private boolean isAscending = true;
+    /** Bounds of the view in the ascending order, the set itself has no bounds */
+    private Range<E> range;
+
+    /** {@link java.util.TreeSet#TreeSet()} */
+    public BTreeSet() {
+        tree = new Tree(null);
+        range = Range.full(tree::compare);
+    }
+
+    /** {@link TreeSet#TreeSet(java.util.Comparator)} */
+    public BTreeSet(Comparator<? super E> comparator) {
+        tree = new Tree(comparator);
+        range = Range.full(tree::compare);
+    }
+
+    /** {@link TreeSet#descendingSet()} */
+    @Override
+    public BTreeSet<E> descendingSet() {
+        return view(!isAscending, range);
+    }
+
+    /** Creates a view of the same tree */
+    private BTreeSet<E> view(boolean isAscending, Range<E> range) {
+        BTreeSet<E> newTreeSet = new BTreeSet<>();
+        newTreeSet.tree = this.tree;
+        newTreeSet.isAscending = isAscending;
+        newTreeSet.range = range;
+        return newTreeSet;
+    }
+
+    /**
+     * {@link TreeSet#subSet(java.lang.Object, boolean, java.lang.Object, boolean)}
+     * The view is live, its iteration starts at the lower bound and stops at the upper one
+     */
+    @Override
+    public BTreeSet<E> subSet(@Nullable E fromElement, boolean fromInclusive,
+                              @Nullable E toElement, boolean toInclusive) throws IllegalArgumentException {
+        return view(isAscending, isAscending
+                ? range.narrow(true, fromElement, fromInclusive, true, toElement, toInclusive)
+                : range.narrow(true, toElement, toInclusive, true, fromElement, fromInclusive));
+    }
+
+    /** {@link TreeSet#headSet(java.lang.Object, boolean)} */
+    @Override
+    public BTreeSet<E> headSet(@Nullable E toElement, boolean inclusive) throws IllegalArgumentException {
+        return view(isAscending, isAscending
+                ? range.narrow(false, null, false, true, toElement, inclusive)
+                : range.narrow(true, toElement, inclusive, false, null, false));
+    }
+
+    /** {@link TreeSet#tailSet(java.lang.Object, boolean)} */
+    @Override
+    public BTreeSet<E> tailSet(@Nullable E fromElement, boolean inclusive) throws IllegalArgumentException {
+        return view(isAscending, isAscending
+                ? range.narrow(true, fromElement, inclusive, false, null, false)
+                : range.narrow(false, null, false, true, fromElement, inclusive));
+    }
+
+    /** {@link TreeSet#iterator()} */
+    @NotNull @Override
+    public Iterator<E> iterator() {
+        return (isAscending ? tree.ascendingIterator(range) : tree.descendingIterator(range));
+    }
+
+    /** {@link TreeSet#descendingIterator()} */
+    @Override
+    public Iterator<E> descendingIterator() {
+        return (isAscending ? tree.descendingIterator(range) : tree.ascendingIterator(range));
+    }
+
+    /** {@link TreeSet#size()}, a view counts its elements by iterating them */
+    @Override
+    public int size() {
+        if (range.isFull()) {
+            return tree.size();
+        }
+        int size = 0;
+        for (Iterator<E> iterator = tree.ascendingIterator(range); iterator.hasNext(); iterator.next()) {
+            size++;
+        }
+        return size;
+    }
+
+    /** {@link TreeSet#first()} */
+    @Override @Nullable
+    public E first() throws NoSuchElementException {
+        return (isAscending ? tree.ascendingIterator(range) : tree.descendingIterator(range)).next();
+    }
+
+    /** {@link TreeSet#last()} */
+    @Override @Nullable
+    public E last() throws NoSuchElementException {
+        return (isAscending ? tree.descendingIterator(range) : tree.ascendingIterator(range)).next();
+    }
+
+    /** {@link TreeSet#lower(java.lang.Object)} */
+    @Override @Nullable
+    public E lower(@Nullable E e) {
+        return isAscending ? tree.lower(e, range) : tree.higher(e, range);
+    }
+
+    /** {@link TreeSet#floor(java.lang.Object)} */
+    @Override @Nullable
+    public E floor(@Nullable E e) {
+        return isAscending ? tree.floor(e, range) : tree.ceiling(e, range);
+    }
+
+    /** {@link TreeSet#ceiling(java.lang.Object)} */
+    @Override @Nullable
+    public E ceiling(@Nullable E e) {
+        return isAscending ? tree.ceiling(e, range) : tree.floor(e, range);
+    }
+
+    /** {@link TreeSet#higher(java.lang.Object)} */
+    @Override @Nullable
+    public E higher(@Nullable E e) {
+        return isAscending ? tree.higher(e, range) : tree.lower(e, range);
+    }
+
+    /**
+     * {@link java.util.TreeSet#add(java.lang.Object)}
+     * @throws IllegalArgumentException if the element is out of the bounds of the view
+     */
+    @Override
+    public boolean add(@Nullable E e) throws IllegalArgumentException {
+        if (!range.contains(e)) {
+            throw new IllegalArgumentException("Element is out of range");
+        }
+        return tree.add(e);
+    }
+
+    /** {@link TreeSet#remove(java.lang.Object)} */
+    @Override
+    public boolean remove(@Nullable Object o) throws ClassCastException {
+        return range.contains(o) && tree.remove(o);
+    }
+
+    /** {@link java.util.TreeSet#contains(java.lang.Object)} */
+    @Override
+    public boolean contains(@Nullable Object o) throws ClassCastException {
+        return range.contains(o) && tree.contains(o);
+    }
+
+    /** {@link TreeSet#clear()}, removes only the elements in the bounds of a view */
+    @Override
+    public void clear() {
+        if (range.isFull()) {
+            tree.clear();
+            return;
+        }
+        ArrayList<E> elements = new ArrayList<>();
+        for (Iterator<E> iterator = tree.ascendingIterator(range); iterator.hasNext(); ) {
+            elements.add(iterator.next());
+        }
+        for (E element : elements) {
+            tree.remove(element);
+        }
+    }
+
+    /** Number of leaves in the whole tree, lets tests check how full the nodes are */
+    int leafCount() {
+        int count = 0;
+        for (Leaf leaf = tree.head; leaf != null; leaf = leaf.next) {
+            count++;
+        }
+        return count;
+    }
+
+    /** Node of B+-tree with sorted keys */
+    private static class Node {
+        Object[] keys = new Object[MAX_KEYS + 1];
+        int count = 0;
+    }
+
+    /** Leaf, which stores the keys of the set */
+    private static class Leaf extends Node {
+        Leaf previous = null;
+        Leaf next = null;
+    }
+
+    /** Inner node: child i has the keys not less than keys[i - 1] and less than keys[i] */
+    private static class Inner extends Node {
+        Node[] children = new Node[MAX_KEYS + 2];
+    }
+
+    /**
+     * B+-tree.
+     * Nodes are split in halves when they overflow and borrow keys from a sibling or are merged with it
+     * when they underflow, so every node except the root is at least half full
+     */
+    private class Tree {
+
+        private Node root = new Leaf();
+        private Leaf head = (Leaf) root;
+        private Leaf tail = (Leaf) root;
+        /** Number of inner levels */
+        private int height = 0;
+        private int size = 0;
+        private Comparator<? super E> comparator;
+        private int version = 0;
+
+        private Tree(@Nullable Comparator<? super E> comparator) {
+            this.comparator = comparator;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        @NotNull
+        private Iterator<E> ascendingIterator(@NotNull Range<E> range) {
+            return new AscendingIterator(range);
+        }
+
+        @NotNull
+        private Iterator<E> descendingIterator(@NotNull Range<E> range) {
+            return new DescendingIterator(range);
+        }
+
+        private boolean contains(@Nullable Object o) throws ClassCastException {
+            if (comparator == null && o == null) {
+                throw new NullPointerException();
+            }
+            Leaf leaf = findLeaf(o, null, null);
+            int index = lowerBound(leaf, o);
+            return index < leaf.count && compare(o, getKey(leaf, index)) == 0;
+        }
+
+        @Nullable
+        private E lower(@Nullable E e, @NotNull Range<E> range) {
+            if (range.tooHigh(e)) {
+                return lowestInRange(new DescendingIterator(range));
+            }
+            Leaf leaf = findLeaf(e, null, null);
+            E key = keyBefore(leaf, lowerBound(leaf, e));
+            return key == null || range.tooLow(key) ? null : key;
+        }
+
+        @Nullable
+        private E floor(@Nullable E e, @NotNull Range<E> range) {
+            if (range.tooHigh(e)) {
+                return lowestInRange(new DescendingIterator(range));
+            }
+            Leaf leaf = findLeaf(e, null, null);
+            E key = keyBefore(leaf, upperBound(leaf, e));
+            return key == null || range.tooLow(key) ? null : key;
+        }
+
+        @Nullable
+        private E higher(@Nullable E e, @NotNull Range<E> range) {
+            if (range.tooLow(e)) {
+                return lowestInRange(new AscendingIterator(range));
+            }
+            Leaf leaf = findLeaf(e, null, null);
+            E key = keyFrom(leaf, upperBound(leaf, e));
+            return key == null || range.tooHigh(key) ? null : key;
+        }
+
+        @Nullable
+        private E ceiling(@Nullable E e, @NotNull Range<E> range) {
+            if (range.tooLow(e)) {
+                return lowestInRange(new AscendingIterator(range));
+            }
+            Leaf leaf = findLeaf(e, null, null);
+            E key = keyFrom(leaf, lowerBound(leaf, e));
+            return key == null || range.tooHigh(key) ? null : key;
+        }
+
+        /** Gets the first key of the iterator or null if there's none */
+        @Nullable
+        private E lowestInRange(@NotNull Iterator<E> iterator) {
+            return iterator.hasNext() ? iterator.next() : null;
+        }
+
+        private void checkNull() {
+            compare(null, null);
+        }
+
+        private boolean add(@Nullable E e) {
+            if (e == null) {
+                checkNull();
+            }
+            Inner[] path = new Inner[height];
+            int[] indices = new int[height];
+            Leaf leaf = findLeaf(e, path, indices);
+            int index = lowerBound(leaf, e);
+            if (index < leaf.count && compare(e, getKey(leaf, index)) == 0) {
+                return false;
+            }
+            System.arraycopy(leaf.keys, index, leaf.keys, index + 1, leaf.count - index);
+            leaf.keys[index] = e;
+            leaf.count++;
+            if (leaf.count > MAX_KEYS) {
+                splitLeaf(leaf, path, indices);
+            }
+            size++;
+            version++;
+            return true;
+        }
+
+        private boolean remove(@Nullable Object o) throws ClassCastException {
+            if (comparator == null && o == null) {
+                throw new NullPointerException();
+            }
+            Inner[] path = new Inner[height];
+            int[] indices = new int[height];
+            Leaf leaf = findLeaf(o, path, indices);
+            int index = lowerBound(leaf, o);
+            if (index == leaf.count || compare(o, getKey(leaf, index)) != 0) {
+                return false;
+            }
+            System.arraycopy(leaf.keys, index + 1, leaf.keys, index, leaf.count - index - 1);
+            leaf.count--;
+            leaf.keys[leaf.count] = null;
+            rebalance(leaf, path, indices);
+            size--;
+            version++;
+            return true;
+        }
+
+        private void clear() {
+            root = new Leaf();
+            head = (Leaf) root;
+            tail = (Leaf) root;
+            height = 0;
+            size = 0;
+            version++;
+        }
+
+        /* Even more private methods */
+
+        @SuppressWarnings("unchecked")
+        private int compare(@Nullable Object o1, @Nullable E o2) {
+            return comparator == null ? ((Comparable<? super E>) o1).compareTo(o2) : comparator.compare((E) o1, o2);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Nullable
+        private E getKey(@NotNull Node node, int index) {
+            return (E) node.keys[index];
+        }
+
+        /**
+         * Finds the leaf, where the key is or would be
+         * @param path - if not null, the inner nodes on the path from the root are stored in it
+         * @param indices - if not null, the indices of the children on the path are stored in it
+         */
+        @NotNull
+        private Leaf findLeaf(@Nullable Object o, @Nullable Inner[] path, @Nullable int[] indices) {
+            Node node = root;
+            for (int level = 0; level < height; level++) {
+                Inner inner = (Inner) node;
+                int index = upperBound(inner, o);
+                if (path != null) {
+                    path[level] = inner;
+                    indices[level] = index;
+                }
+                node = inner.children[index];
+            }
+            return (Leaf) node;
+        }
+
+        /** Finds the first index of the key, which is not less than the given one */
+        private int lowerBound(@NotNull Node node, @Nullable Object o) {
+            int low = 0;
+            int high = node.count;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (compare(o, getKey(node, middle)) <= 0) {
+                    high = middle;
+                } else {
+                    low = middle + 1;
+                }
+            }
+            return low;
+        }
+
+        /** Finds the first index of the key, which is greater than the given one */
+        private int upperBound(@NotNull Node node, @Nullable Object o) {
+            int low = 0;
+            int high = node.count;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (compare(o, getKey(node, middle)) < 0) {
+                    high = middle;
+                } else {
+                    low = middle + 1;
+                }
+            }
+            return low;
+        }
+
+        /** Gets the key at the index or the first key of the next leaf, if the index is after the last key */
+        @Nullable
+        private E keyFrom(@NotNull Leaf leaf, int index) {
+            if (index < leaf.count) {
+                return getKey(leaf, index);
+            }
+            return leaf.next == null ? null : getKey(leaf.next, 0);
+        }
+
+        /** Gets the key before the index, which may be the last key of the previous leaf */
+        @Nullable
+        private E keyBefore(@NotNull Leaf leaf, int index) {
+            if (index > 0) {
+                return getKey(leaf, index - 1);
+            }
+            return leaf.previous == null ? null : getKey(leaf.previous, leaf.previous.count - 1);
+        }
+
+        /** Moves the upper half of the overflowed leaf into a new leaf after it */
+        private void splitLeaf(@NotNull Leaf leaf, @NotNull Inner[] path, @NotNull int[] indices) {
+            Leaf right = new Leaf();
+            int half = leaf.count / 2;
+            right.count = leaf.count - half;
+            System.arraycopy(leaf.keys, half, right.keys, 0, right.count);
+            Arrays.fill(leaf.keys, half, leaf.count, null);
+            leaf.count = half;
+            right.next = leaf.next;
+            if (right.next == null) {
+                tail = right;
+            } else {
+                right.next.previous = right;
+            }
+            right.previous = leaf;
+            leaf.next = right;
+            insertIntoParent(leaf, right.keys[0], right, path, indices);
+        }
+
+        /**
+         * Inserts the new right node and the separator before it into the parent of the left node,
+         * splitting the overflowed parents up to the root
+         */
+        private void insertIntoParent(@NotNull Node left, @Nullable Object separator, @NotNull Node right,
+                                      @NotNull Inner[] path, @NotNull int[] indices) {
+            for (int level = path.length - 1; level >= 0; level--) {
+                Inner parent = path[level];
+                int index = indices[level];
+                System.arraycopy(parent.keys, index, parent.keys, index + 1, parent.count - index);
+                System.arraycopy(parent.children, index + 1, parent.children, index + 2, parent.count - index);
+                parent.keys[index] = separator;
+                parent.children[index + 1] = right;
+                parent.count++;
+                if (parent.count <= MAX_KEYS) {
+                    return;
+                }
+                Inner newRight = new Inner();
+                int half = parent.count / 2;
+                separator = parent.keys[half];
+                newRight.count = parent.count - half - 1;
+                System.arraycopy(parent.keys, half + 1, newRight.keys, 0, newRight.count);
+                System.arraycopy(parent.children, half + 1, newRight.children, 0, newRight.count + 1);
+                Arrays.fill(parent.keys, half, parent.count, null);
+                Arrays.fill(parent.children, half + 1, parent.count + 1, null);
+                parent.count = half;
+                left = parent;
+                right = newRight;
+            }
+            Inner newRoot = new Inner();
+            newRoot.keys[0] = separator;
+            newRoot.children[0] = left;
+            newRoot.children[1] = right;
+            newRoot.count = 1;
+            root = newRoot;
+            height++;
+        }
+
+        /**
+         * Restores the fullness of the nodes on the path after a removal from the node at its end:
+         * an underfull node borrows a key from a sibling, which has spare ones, or is merged with a sibling,
+         * which may leave the parent underfull in its turn.
+         * Then shortens the tree while the root has one child
+         */
+        private void rebalance(@NotNull Node node, @NotNull Inner[] path, @NotNull int[] indices) {
+            for (int level = path.length - 1; level >= 0 && node.count < MIN_KEYS; level--) {
+                Inner parent = path[level];
+                int index = indices[level];
+                if (index > 0 && parent.children[index - 1].count > MIN_KEYS) {
+                    borrowFromLeft(parent, index);
+                } else if (index < parent.count && parent.children[index + 1].count > MIN_KEYS) {
+                    borrowFromRight(parent, index);
+                } else {
+                    merge(parent, index > 0 ? index - 1 : index);
+                }
+                node = parent;
+            }
+            while (height > 0 && root.count == 0) {
+                root = ((Inner) root).children[0];
+                height--;
+            }
+        }
+
+        /** Moves the last key of the left sibling into the child, updating the separator between them */
+        private void borrowFromLeft(@NotNull Inner parent, int index) {
+            Node left = parent.children[index - 1];
+            Node node = parent.children[index];
+            System.arraycopy(node.keys, 0, node.keys, 1, node.count);
+            if (node instanceof Leaf) {
+                node.keys[0] = left.keys[left.count - 1];
+                parent.keys[index - 1] = node.keys[0];
+            } else {
+                Inner inner = (Inner) node;
+                Inner leftInner = (Inner) left;
+                System.arraycopy(inner.children, 0, inner.children, 1, inner.count + 1);
+                inner.keys[0] = parent.keys[index - 1];
+                inner.children[0] = leftInner.children[left.count];
+                leftInner.children[left.count] = null;
+                parent.keys[index - 1] = left.keys[left.count - 1];
+            }
+            node.count++;
+            left.count--;
+            left.keys[left.count] = null;
+        }
+
+        /** Moves the first key of the right sibling into the child, updating the separator between them */
+        private void borrowFromRight(@NotNull Inner parent, int index) {
+            Node node = parent.children[index];
+            Node right = parent.children[index + 1];
+            if (node instanceof Leaf) {
+                node.keys[node.count] = right.keys[0];
+                System.arraycopy(right.keys, 1, right.keys, 0, right.count - 1);
+                parent.keys[index] = right.keys[0];
+            } else {
+                Inner inner = (Inner) node;
+                Inner rightInner = (Inner) right;
+                inner.keys[node.count] = parent.keys[index];
+                inner.children[node.count + 1] = rightInner.children[0];
+                parent.keys[index] = right.keys[0];
+                System.arraycopy(right.keys, 1, right.keys, 0, right.count - 1);
+                System.arraycopy(rightInner.children, 1, rightInner.children, 0, right.count);
+                rightInner.children[right.count] = null;
+            }
+            node.count++;
+            right.count--;
+            right.keys[right.count] = null;
+        }
+
+        /** Moves all the keys of the child index + 1 into the child index and removes the emptied child */
+        private void merge(@NotNull Inner parent, int index) {
+            Node left = parent.children[index];
+            Node right = parent.children[index + 1];
+            if (left instanceof Leaf) {
+                System.arraycopy(right.keys, 0, left.keys, left.count, right.count);
+                left.count += right.count;
+                Leaf leftLeaf = (Leaf) left;
+                leftLeaf.next = ((Leaf) right).next;
+                if (leftLeaf.next == null) {
+                    tail = leftLeaf;
+                } else {
+                    leftLeaf.next.previous = leftLeaf;
+                }
+            } else {
+                left.keys[left.count] = parent.keys[index];
+                System.arraycopy(right.keys, 0, left.keys, left.count + 1, right.count);
+                System.arraycopy(((Inner) right).children, 0, ((Inner) left).children, left.count + 1, right.count + 1);
+                left.count += right.count + 1;
+            }
+            System.arraycopy(parent.keys, index + 1, parent.keys, index, parent.count - index - 1);
+            System.arraycopy(parent.children, index + 2, parent.children, index + 1, parent.count - index - 1);
+            parent.count--;
+            parent.keys[parent.count] = null;
+            parent.children[parent.count + 1] = null;
+        }
+
+        private class AscendingIterator implements Iterator<E> {
+
+            private final Range<E> range;
+            private Leaf leaf;
+            private int index;
+            private int treeVersion = version;
+
+            /** Starts at the first key, which is not before the range */
+            private AscendingIterator(@NotNull Range<E> range) {
+                this.range = range;
+                if (range.hasLow()) {
+                    leaf = findLeaf(range.low(), null, null);
+                    index = range.isLowInclusive() ? lowerBound(leaf, range.low()) : upperBound(leaf, range.low());
+                    if (index == leaf.count) {
+                        leaf = leaf.next;
+                        index = 0;
+                    }
+                } else {
+                    leaf = head;
+                    index = 0;
+                }
+            }
+
+            @Override
+            public boolean hasNext() throws ConcurrentModificationException {
+                if (treeVersion != version) {
+                    throw new ConcurrentModificationException();
+                }
+                return leaf != null && index < leaf.count && !range.tooHigh(leaf.keys[index]);
+            }
+
+            @Override
+            public E next() throws NoSuchElementException, ConcurrentModificationException {
+                if (hasNext()) {
+                    E key = getKey(leaf, index++);
+                    if (index == leaf.count) {
+                        leaf = leaf.next;
+                        index = 0;
+                    }
+                    return key;
+                } else {
+                    throw new NoSuchElementException();
+                }
+            }
+        }
+
+        private class DescendingIterator implements Iterator<E> {
+
+            private final Range<E> range;
+            private Leaf leaf;
+            private int index;
+            private int treeVersion = version;
+
+            /** Starts at the last key, which is not after the range */
+            private DescendingIterator(@NotNull Range<E> range) {
+                this.range = range;
+                if (range.hasHigh()) {
+                    leaf = findLeaf(range.high(), null, null);
+                    index = (range.isHighInclusive()
+                            ? upperBound(leaf, range.high()) : lowerBound(leaf, range.high())) - 1;
+                    if (index < 0) {
+                        leaf = leaf.previous;
+                        index = leaf == null ? -1 : leaf.count - 1;
+                    }
+                } else {
+                    leaf = tail;
+                    index = tail.count - 1;
+                }
+            }
+
+            @Override
+            public boolean hasNext() throws ConcurrentModificationException {
+                if (treeVersion != version) {
+                    throw new ConcurrentModificationException();
+                }
+                return leaf != null && index >= 0 && !range.tooLow(leaf.keys[index]);
+            }
+
+            @Override
+            public E next() throws NoSuchElementException, ConcurrentModificationException {
+                if (hasNext()) {
+                    E key = getKey(leaf, index--);
+                    if (index < 0) {
+                        leaf = leaf.previous;
+                        index = leaf == null ? -1 : leaf.count - 1;
+                    }
+                    return key;
+                } else {
+                    throw new NoSuchElementException();
+                }
+            }
+        }
+    }
+}
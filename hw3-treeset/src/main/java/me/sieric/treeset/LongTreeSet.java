@@ -0,0 +1,565 @@
+package me.sieric.treeset;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Sorted set of long keys with the navigation of {@link java.util.TreeSet}.
+ * It's the B+-tree of {@link BTreeSet}, but keys are stored in long arrays
+ * and compared as primitives, so no key is boxed and no comparator is called.
+ * As there's no null for a long, navigation methods take the value to return, when there's no such key,
+ * their versions without it throw NoSuchElementException instead of returning null
+ */
+public class LongTreeSet implements Iterable<Long> {
+
+    /** Maximal number of keys in a node, a node with more keys is split in halves */
+    private static final int MAX_KEYS = 64;
+
+    /** Minimal number of keys in a node except the root, a node with less keys borrows or is merged */
+    private static final int MIN_KEYS = MAX_KEYS / 2;
+
+    /** B+-tree to store elements */
+    private Tree tree = new Tree();
+    /** Flag, indicates if order is descending*/
+    private boolean isAscending = true;
+
+    /** {@link java.util.TreeSet#size()} */
+    public int size() {
+        return tree.size;
+    }
+
+    /** {@link java.util.TreeSet#isEmpty()} */
+    public boolean isEmpty() {
+        return tree.size == 0;
+    }
+
+    /** {@link java.util.TreeSet#add(java.lang.Object)} */
+    public boolean add(long e) {
+        return tree.add(e);
+    }
+
+    /** {@link java.util.TreeSet#remove(java.lang.Object)} */
+    public boolean remove(long e) {
+        return tree.remove(e);
+    }
+
+    /** {@link java.util.TreeSet#contains(java.lang.Object)} */
+    public boolean contains(long e) {
+        Leaf leaf = tree.findLeaf(e, null, null);
+        int index = lowerBound(leaf, e);
+        return index < leaf.count && leaf.keys[index] == e;
+    }
+
+    /** {@link java.util.TreeSet#clear()} */
+    public void clear() {
+        tree.clear();
+    }
+
+    /** {@link java.util.TreeSet#iterator()} */
+    @NotNull @Override
+    public PrimitiveIterator.OfLong iterator() {
+        return (isAscending ? tree.new AscendingIterator() : tree.new DescendingIterator());
+    }
+
+    /** {@link java.util.TreeSet#descendingIterator()} */
+    @NotNull
+    public PrimitiveIterator.OfLong descendingIterator() {
+        return (isAscending ? tree.new DescendingIterator() : tree.new AscendingIterator());
+    }
+
+    /** {@link java.util.TreeSet#descendingSet()} */
+    @NotNull
+    public LongTreeSet descendingSet() {
+        LongTreeSet newTreeSet = new LongTreeSet();
+        newTreeSet.tree = this.tree;
+        newTreeSet.isAscending = !isAscending;
+        return newTreeSet;
+    }
+
+    /** {@link java.util.TreeSet#first()} */
+    public long first() throws NoSuchElementException {
+        return isAscending ? tree.first() : tree.last();
+    }
+
+    /** {@link java.util.TreeSet#last()} */
+    public long last() throws NoSuchElementException {
+        return isAscending ? tree.last() : tree.first();
+    }
+
+    /** {@link java.util.TreeSet#lower(java.lang.Object)}, but returns ifAbsent instead of null */
+    public long lower(long e, long ifAbsent) {
+        return isAscending ? tree.lower(e, ifAbsent) : tree.higher(e, ifAbsent);
+    }
+
+    /**
+     * {@link java.util.TreeSet#lower(java.lang.Object)}
+     * @throws NoSuchElementException if there's no such key
+     */
+    public long lower(long e) throws NoSuchElementException {
+        if (isEmpty() || !isBefore(first(), e)) {
+            throw new NoSuchElementException();
+        }
+        return lower(e, 0);
+    }
+
+    /** {@link java.util.TreeSet#floor(java.lang.Object)}, but returns ifAbsent instead of null */
+    public long floor(long e, long ifAbsent) {
+        return isAscending ? tree.floor(e, ifAbsent) : tree.ceiling(e, ifAbsent);
+    }
+
+    /**
+     * {@link java.util.TreeSet#floor(java.lang.Object)}
+     * @throws NoSuchElementException if there's no such key
+     */
+    public long floor(long e) throws NoSuchElementException {
+        if (isEmpty() || isBefore(e, first())) {
+            throw new NoSuchElementException();
+        }
+        return floor(e, 0);
+    }
+
+    /** {@link java.util.TreeSet#ceiling(java.lang.Object)}, but returns ifAbsent instead of null */
+    public long ceiling(long e, long ifAbsent) {
+        return isAscending ? tree.ceiling(e, ifAbsent) : tree.floor(e, ifAbsent);
+    }
+
+    /**
+     * {@link java.util.TreeSet#ceiling(java.lang.Object)}
+     * @throws NoSuchElementException if there's no such key
+     */
+    public long ceiling(long e) throws NoSuchElementException {
+        if (isEmpty() || isBefore(last(), e)) {
+            throw new NoSuchElementException();
+        }
+        return ceiling(e, 0);
+    }
+
+    /** {@link java.util.TreeSet#higher(java.lang.Object)}, but returns ifAbsent instead of null */
+    public long higher(long e, long ifAbsent) {
+        return isAscending ? tree.higher(e, ifAbsent) : tree.lower(e, ifAbsent);
+    }
+
+    /**
+     * {@link java.util.TreeSet#higher(java.lang.Object)}
+     * @throws NoSuchElementException if there's no such key
+     */
+    public long higher(long e) throws NoSuchElementException {
+        if (isEmpty() || !isBefore(e, last())) {
+            throw new NoSuchElementException();
+        }
+        return higher(e, 0);
+    }
+
+    /** Checks if the first key goes before the second one in the order of the set */
+    private boolean isBefore(long first, long second) {
+        return isAscending ? first < second : first > second;
+    }
+
+    /** Number of leaves in the tree, lets tests check how full the nodes are */
+    int leafCount() {
+        int count = 0;
+        for (Leaf leaf = tree.head; leaf != null; leaf = leaf.next) {
+            count++;
+        }
+        return count;
+    }
+
+    /** Node of B+-tree with sorted keys */
+    private static class Node {
+        long[] keys = new long[MAX_KEYS + 1];
+        int count = 0;
+    }
+
+    /** Leaf, which stores the keys of the set */
+    private static class Leaf extends Node {
+        Leaf previous = null;
+        Leaf next = null;
+    }
+
+    /** Inner node: child i has the keys not less than keys[i - 1] and less than keys[i] */
+    private static class Inner extends Node {
+        Node[] children = new Node[MAX_KEYS + 2];
+    }
+
+    /** Finds the first index of the key, which is not less than the given one */
+    private static int lowerBound(@NotNull Node node, long e) {
+        int low = 0;
+        int high = node.count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (e <= node.keys[middle]) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    /** Finds the first index of the key, which is greater than the given one */
+    private static int upperBound(@NotNull Node node, long e) {
+        int low = 0;
+        int high = node.count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (e < node.keys[middle]) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    /** B+-tree, which is split and shrunk in the same way as the tree of {@link BTreeSet} */
+    private static class Tree {
+
+        private Node root = new Leaf();
+        private Leaf head = (Leaf) root;
+        private Leaf tail = (Leaf) root;
+        /** Number of inner levels */
+        private int height = 0;
+        private int size = 0;
+        private int version = 0;
+
+        private long first() throws NoSuchElementException {
+            if (size == 0) {
+                throw new NoSuchElementException();
+            }
+            return head.keys[0];
+        }
+
+        private long last() throws NoSuchElementException {
+            if (size == 0) {
+                throw new NoSuchElementException();
+            }
+            return tail.keys[tail.count - 1];
+        }
+
+        private long lower(long e, long ifAbsent) {
+            if (size == 0 || e <= head.keys[0]) {
+                return ifAbsent;
+            }
+            Leaf leaf = findLeaf(e, null, null);
+            return keyBefore(leaf, lowerBound(leaf, e));
+        }
+
+        private long floor(long e, long ifAbsent) {
+            if (size == 0 || e < head.keys[0]) {
+                return ifAbsent;
+            }
+            Leaf leaf = findLeaf(e, null, null);
+            return keyBefore(leaf, upperBound(leaf, e));
+        }
+
+        private long higher(long e, long ifAbsent) {
+            if (size == 0 || e >= tail.keys[tail.count - 1]) {
+                return ifAbsent;
+            }
+            Leaf leaf = findLeaf(e, null, null);
+            return keyFrom(leaf, upperBound(leaf, e));
+        }
+
+        private long ceiling(long e, long ifAbsent) {
+            if (size == 0 || e > tail.keys[tail.count - 1]) {
+                return ifAbsent;
+            }
+            Leaf leaf = findLeaf(e, null, null);
+            return keyFrom(leaf, lowerBound(leaf, e));
+        }
+
+        private boolean add(long e) {
+            Inner[] path = new Inner[height];
+            int[] indices = new int[height];
+            Leaf leaf = findLeaf(e, path, indices);
+            int index = lowerBound(leaf, e);
+            if (index < leaf.count && leaf.keys[index] == e) {
+                return false;
+            }
+            System.arraycopy(leaf.keys, index, leaf.keys, index + 1, leaf.count - index);
+            leaf.keys[index] = e;
+            leaf.count++;
+            if (leaf.count > MAX_KEYS) {
+                splitLeaf(leaf, path, indices);
+            }
+            size++;
+            version++;
+            return true;
+        }
+
+        private boolean remove(long e) {
+            Inner[] path = new Inner[height];
+            int[] indices = new int[height];
+            Leaf leaf = findLeaf(e, path, indices);
+            int index = lowerBound(leaf, e);
+            if (index == leaf.count || leaf.keys[index] != e) {
+                return false;
+            }
+            System.arraycopy(leaf.keys, index + 1, leaf.keys, index, leaf.count - index - 1);
+            leaf.count--;
+            rebalance(leaf, path, indices);
+            size--;
+            version++;
+            return true;
+        }
+
+        private void clear() {
+            root = new Leaf();
+            head = (Leaf) root;
+            tail = (Leaf) root;
+            height = 0;
+            size = 0;
+            version++;
+        }
+
+        /* Even more private methods */
+
+        /**
+         * Finds the leaf, where the key is or would be
+         * @param path - if not null, the inner nodes on the path from the root are stored in it
+         * @param indices - if not null, the indices of the children on the path are stored in it
+         */
+        @NotNull
+        private Leaf findLeaf(long e, Inner[] path, int[] indices) {
+            Node node = root;
+            for (int level = 0; level < height; level++) {
+                Inner inner = (Inner) node;
+                int index = upperBound(inner, e);
+                if (path != null) {
+                    path[level] = inner;
+                    indices[level] = index;
+                }
+                node = inner.children[index];
+            }
+            return (Leaf) node;
+        }
+
+        /**
+         * Gets the key at the index or the first key of the next leaf, if the index is after the last key.
+         * The caller checks that the key exists, so the next leaf is there when it's needed
+         */
+        private long keyFrom(@NotNull Leaf leaf, int index) {
+            return index < leaf.count ? leaf.keys[index] : leaf.next.keys[0];
+        }
+
+        /**
+         * Gets the key before the index, which may be the last key of the previous leaf.
+         * The caller checks that the key exists, so the previous leaf is there when it's needed
+         */
+        private long keyBefore(@NotNull Leaf leaf, int index) {
+            return index > 0 ? leaf.keys[index - 1] : leaf.previous.keys[leaf.previous.count - 1];
+        }
+
+        /** Moves the upper half of the overflowed leaf into a new leaf after it */
+        private void splitLeaf(@NotNull Leaf leaf, @NotNull Inner[] path, @NotNull int[] indices) {
+            Leaf right = new Leaf();
+            int half = leaf.count / 2;
+            right.count = leaf.count - half;
+            System.arraycopy(leaf.keys, half, right.keys, 0, right.count);
+            leaf.count = half;
+            right.next = leaf.next;
+            if (right.next == null) {
+                tail = right;
+            } else {
+                right.next.previous = right;
+            }
+            right.previous = leaf;
+            leaf.next = right;
+            insertIntoParent(leaf, right.keys[0], right, path, indices);
+        }
+
+        /**
+         * Inserts the new right node and the separator before it into the parent of the left node,
+         * splitting the overflowed parents up to the root
+         */
+        private void insertIntoParent(@NotNull Node left, long separator, @NotNull Node right,
+                                      @NotNull Inner[] path, @NotNull int[] indices) {
+            for (int level = path.length - 1; level >= 0; level--) {
+                Inner parent = path[level];
+                int index = indices[level];
+                System.arraycopy(parent.keys, index, parent.keys, index + 1, parent.count - index);
+                System.arraycopy(parent.children, index + 1, parent.children, index + 2, parent.count - index);
+                parent.keys[index] = separator;
+                parent.children[index + 1] = right;
+                parent.count++;
+                if (parent.count <= MAX_KEYS) {
+                    return;
+                }
+                Inner newRight = new Inner();
+                int half = parent.count / 2;
+                separator = parent.keys[half];
+                newRight.count = parent.count - half - 1;
+                System.arraycopy(parent.keys, half + 1, newRight.keys, 0, newRight.count);
+                System.arraycopy(parent.children, half + 1, newRight.children, 0, newRight.count + 1);
+                for (int i = half + 1; i <= parent.count; i++) {
+                    parent.children[i] = null;
+                }
+                parent.count = half;
+                left = parent;
+                right = newRight;
+            }
+            Inner newRoot = new Inner();
+            newRoot.keys[0] = separator;
+            newRoot.children[0] = left;
+            newRoot.children[1] = right;
+            newRoot.count = 1;
+            root = newRoot;
+            height++;
+        }
+
+        /**
+         * Restores the fullness of the nodes on the path after a removal from the node at its end:
+         * an underfull node borrows a key from a sibling, which has spare ones, or is merged with a sibling,
+         * which may leave the parent underfull in its turn.
+         * Then shortens the tree while the root has one child
+         */
+        private void rebalance(@NotNull Node node, @NotNull Inner[] path, @NotNull int[] indices) {
+            for (int level = path.length - 1; level >= 0 && node.count < MIN_KEYS; level--) {
+                Inner parent = path[level];
+                int index = indices[level];
+                if (index > 0 && parent.children[index - 1].count > MIN_KEYS) {
+                    borrowFromLeft(parent, index);
+                } else if (index < parent.count && parent.children[index + 1].count > MIN_KEYS) {
+                    borrowFromRight(parent, index);
+                } else {
+                    merge(parent, index > 0 ? index - 1 : index);
+                }
+                node = parent;
+            }
+            while (height > 0 && root.count == 0) {
+                root = ((Inner) root).children[0];
+                height--;
+            }
+        }
+
+        /** Moves the last key of the left sibling into the child, updating the separator between them */
+        private void borrowFromLeft(@NotNull Inner parent, int index) {
+            Node left = parent.children[index - 1];
+            Node node = parent.children[index];
+            System.arraycopy(node.keys, 0, node.keys, 1, node.count);
+            if (node instanceof Leaf) {
+                node.keys[0] = left.keys[left.count - 1];
+                parent.keys[index - 1] = node.keys[0];
+            } else {
+                Inner inner = (Inner) node;
+                Inner leftInner = (Inner) left;
+                System.arraycopy(inner.children, 0, inner.children, 1, inner.count + 1);
+                inner.keys[0] = parent.keys[index - 1];
+                inner.children[0] = leftInner.children[left.count];
+                leftInner.children[left.count] = null;
+                parent.keys[index - 1] = left.keys[left.count - 1];
+            }
+            node.count++;
+            left.count--;
+        }
+
+        /** Moves the first key of the right sibling into the child, updating the separator between them */
+        private void borrowFromRight(@NotNull Inner parent, int index) {
+            Node node = parent.children[index];
+            Node right = parent.children[index + 1];
+            if (node instanceof Leaf) {
+                node.keys[node.count] = right.keys[0];
+                System.arraycopy(right.keys, 1, right.keys, 0, right.count - 1);
+                parent.keys[index] = right.keys[0];
+            } else {
+                Inner inner = (Inner) node;
+                Inner rightInner = (Inner) right;
+                inner.keys[node.count] = parent.keys[index];
+                inner.children[node.count + 1] = rightInner.children[0];
+                parent.keys[index] = right.keys[0];
+                System.arraycopy(right.keys, 1, right.keys, 0, right.count - 1);
+                System.arraycopy(rightInner.children, 1, rightInner.children, 0, right.count);
+                rightInner.children[right.count] = null;
+            }
+            node.count++;
+            right.count--;
+        }
+
+        /** Moves all the keys of the child index + 1 into the child index and removes the emptied child */
+        private void merge(@NotNull Inner parent, int index) {
+            Node left = parent.children[index];
+            Node right = parent.children[index + 1];
+            if (left instanceof Leaf) {
+                System.arraycopy(right.keys, 0, left.keys, left.count, right.count);
+                left.count += right.count;
+                Leaf leftLeaf = (Leaf) left;
+                leftLeaf.next = ((Leaf) right).next;
+                if (leftLeaf.next == null) {
+                    tail = leftLeaf;
+                } else {
+                    leftLeaf.next.previous = leftLeaf;
+                }
+            } else {
+                left.keys[left.count] = parent.keys[index];
+                System.arraycopy(right.keys, 0, left.keys, left.count + 1, right.count);
+                System.arraycopy(((Inner) right).children, 0, ((Inner) left).children, left.count + 1, right.count + 1);
+                left.count += right.count + 1;
+            }
+            System.arraycopy(parent.keys, index + 1, parent.keys, index, parent.count - index - 1);
+            System.arraycopy(parent.children, index + 2, parent.children, index + 1, parent.count - index - 1);
+            parent.count--;
+            parent.children[parent.count + 1] = null;
+        }
+
+        private class AscendingIterator implements PrimitiveIterator.OfLong {
+
+            private Leaf leaf = head;
+            private int index = 0;
+            private int treeVersion = version;
+
+            @Override
+            public boolean hasNext() throws ConcurrentModificationException {
+                if (treeVersion != version) {
+                    throw new ConcurrentModificationException();
+                }
+                return leaf != null && index < leaf.count;
+            }
+
+            @Override
+            public long nextLong() throws NoSuchElementException, ConcurrentModificationException {
+                if (hasNext()) {
+                    long key = leaf.keys[index++];
+                    if (index == leaf.count) {
+                        leaf = leaf.next;
+                        index = 0;
+                    }
+                    return key;
+                } else {
+                    throw new NoSuchElementException();
+                }
+            }
+        }
+
+        private class DescendingIterator implements PrimitiveIterator.OfLong {
+
+            private Leaf leaf = tail;
+            private int index = tail.count - 1;
+            private int treeVersion = version;
+
+            @Override
+            public boolean hasNext() throws ConcurrentModificationException {
+                if (treeVersion != version) {
+                    throw new ConcurrentModificationException();
+                }
+                return leaf != null && index >= 0;
+            }
+
+            @Override
+            public long nextLong() throws NoSuchElementException, ConcurrentModificationException {
+                if (hasNext()) {
+                    long key = leaf.keys[index--];
+                    if (index < 0) {
+                        leaf = leaf.previous;
+                        index = leaf == null ? -1 : leaf.count - 1;
+                    }
+                    return key;
+                } else {
+                    throw new NoSuchElementException();
+                }
+            }
+        }
+    }
+}
@@ -6,115 +6,217 @@ import org.jetbrains.annotations.Nullable;
 import java.util.*;
 
 /**
- * Implementation of MyTreeSetInterface using binary search tree
+ * Implementation of MyTreeSetInterface using red-black tree
  * @param <E> - type of the stored keys
  */
 public class MyTreeSet<E> extends AbstractSet<E> implements MyTreeSetInterface<E> {
 
-    /** Binary search tree to store elements */
+    /** Red-black tree to store elements */
     private Tree tree;
     /** Flag, indicates if order is descending*/
     private boolean isAscending = true;
+    /** Bounds of the view in the ascending order, the set itself has no bounds */
+    private Range<E> range;
 
     /** {@link java.util.TreeSet#TreeSet()} */
     public MyTreeSet() {
         tree = new Tree(null);
+        range = Range.full(tree::compare);
     }
 
     /** {@link TreeSet#TreeSet(java.util.Comparator)} */
     public MyTreeSet(Comparator<? super E> comparator) {
         tree = new Tree(comparator);
+        range = Range.full(tree::compare);
     }
 
     /** {@link TreeSet#descendingSet()} */
     @Override
     public MyTreeSet<E> descendingSet() {
+        return view(!isAscending, range);
+    }
+
+    /** Creates a view of the same tree */
+    private MyTreeSet<E> view(boolean isAscending, Range<E> range) {
         MyTreeSet<E> newTreeSet = new MyTreeSet<>();
         newTreeSet.tree = this.tree;
-        newTreeSet.isAscending = false;
+        newTreeSet.isAscending = isAscending;
+        newTreeSet.range = range;
         return newTreeSet;
     }
 
+    /**
+     * {@link TreeSet#subSet(java.lang.Object, boolean, java.lang.Object, boolean)}
+     * The view is live, its iteration starts at the lower bound and stops at the upper one
+     */
+    @Override
+    public MyTreeSet<E> subSet(@Nullable E fromElement, boolean fromInclusive,
+                               @Nullable E toElement, boolean toInclusive) throws IllegalArgumentException {
+        return view(isAscending, isAscending
+                ? range.narrow(true, fromElement, fromInclusive, true, toElement, toInclusive)
+                : range.narrow(true, toElement, toInclusive, true, fromElement, fromInclusive));
+    }
+
+    /** {@link TreeSet#headSet(java.lang.Object, boolean)} */
+    @Override
+    public MyTreeSet<E> headSet(@Nullable E toElement, boolean inclusive) throws IllegalArgumentException {
+        return view(isAscending, isAscending
+                ? range.narrow(false, null, false, true, toElement, inclusive)
+                : range.narrow(true, toElement, inclusive, false, null, false));
+    }
+
+    /** {@link TreeSet#tailSet(java.lang.Object, boolean)} */
+    @Override
+    public MyTreeSet<E> tailSet(@Nullable E fromElement, boolean inclusive) throws IllegalArgumentException {
+        return view(isAscending, isAscending
+                ? range.narrow(true, fromElement, inclusive, false, null, false)
+                : range.narrow(false, null, false, true, fromElement, inclusive));
+    }
+
     /** {@link TreeSet#iterator()} */
     @NotNull @Override
     public Iterator<E> iterator() {
-        return (isAscending ? tree.ascendingIterator() : tree.descendingIterator());
+        return (isAscending ? tree.ascendingIterator(range) : tree.descendingIterator(range));
     }
 
     /** {@link TreeSet#descendingIterator()} */
     @Override
     public Iterator<E> descendingIterator() {
-        return (isAscending ? tree.descendingIterator() : tree.ascendingIterator());
+        return (isAscending ? tree.descendingIterator(range) : tree.ascendingIterator(range));
     }
 
-    /** {@link TreeSet#size()} */
+    /** {@link TreeSet#size()}, O(log n) for a view */
     @Override
     public int size() {
-        return tree.size();
+        return range.isFull() ? tree.size() : countToHigh() - countBeforeLow();
+    }
+
+    /** Counts the keys of the tree, which are before the range in the ascending order */
+    private int countBeforeLow() {
+        return range.hasLow() ? tree.countLess(range.low(), !range.isLowInclusive()) : 0;
+    }
+
+    /** Counts the keys of the tree, which are before the range or in it in the ascending order */
+    private int countToHigh() {
+        return range.hasHigh() ? tree.countLess(range.high(), range.isHighInclusive()) : tree.size();
     }
 
     /** {@link TreeSet#first()} */
     @Override @Nullable
     public E first() throws NoSuchElementException {
-        return (isAscending ? tree.first() : tree.last());
+        return (isAscending ? tree.first(range) : tree.last(range));
     }
 
     /** {@link TreeSet#last()} */
     @Override @Nullable
     public E last() throws NoSuchElementException {
-        return (isAscending ? tree.last() : tree.first());
+        return (isAscending ? tree.last(range) : tree.first(range));
     }
 
     /** {@link TreeSet#lower(java.lang.Object)} */
     @Override @Nullable
     public E lower(@Nullable E e) {
-        return isAscending ? tree.lower(e) : tree.higher(e);
+        return isAscending ? tree.lower(e, range) : tree.higher(e, range);
     }
 
     /** {@link TreeSet#floor(java.lang.Object)} */
     @Override @Nullable
     public E floor(@Nullable E e) {
-        return isAscending ? tree.floor(e) : tree.ceiling(e);
+        return isAscending ? tree.floor(e, range) : tree.ceiling(e, range);
     }
 
     /** {@link TreeSet#ceiling(java.lang.Object)} */
     @Override @Nullable
     public E ceiling(@Nullable E e) {
-        return isAscending ? tree.ceiling(e) : tree.floor(e);
+        return isAscending ? tree.ceiling(e, range) : tree.floor(e, range);
     }
 
     /** {@link TreeSet#higher(java.lang.Object)} */
     @Override @Nullable
     public E higher(@Nullable E e) {
-        return isAscending ? tree.higher(e) : tree.lower(e);
+        return isAscending ? tree.higher(e, range) : tree.lower(e, range);
     }
 
-    /** {@link java.util.TreeSet#add(java.lang.Object)} */
+    /**
+     * {@link java.util.TreeSet#add(java.lang.Object)}
+     * @throws IllegalArgumentException if the element is out of the bounds of the view
+     */
     @Override
-    public boolean add(@Nullable E e) {
+    public boolean add(@Nullable E e) throws IllegalArgumentException {
+        if (!range.contains(e)) {
+            throw new IllegalArgumentException("Element is out of range");
+        }
         return tree.add(e);
     }
 
     /** {@link TreeSet#remove(java.lang.Object)} */
     @Override
     public boolean remove(@Nullable Object o) throws ClassCastException {
-        return tree.remove(o);
+        return range.contains(o) && tree.remove(o);
     }
 
     /** {@link java.util.TreeSet#contains(java.lang.Object)} */
     @Override
     public boolean contains(@Nullable Object o) throws ClassCastException {
-        return tree.contains(o);
+        return range.contains(o) && tree.contains(o);
+    }
+
+    /**
+     * Gets the number of elements before the given one in the order of this set
+     * @return index of the element, if it's in the set, or the index it would have otherwise
+     */
+    public int rank(@Nullable E e) throws ClassCastException {
+        int beforeLow = countBeforeLow();
+        int toHigh = countToHigh();
+        if (isAscending) {
+            return Math.min(Math.max(tree.countLess(e, false), beforeLow), toHigh) - beforeLow;
+        }
+        return toHigh - Math.min(Math.max(tree.countLess(e, true), beforeLow), toHigh);
+    }
+
+    /**
+     * Gets the element by its index in the order of this set
+     * @throws IndexOutOfBoundsException if index is not in [0, size)
+     */
+    @Nullable
+    public E select(int index) throws IndexOutOfBoundsException {
+        int size = size();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return tree.select(isAscending ? countBeforeLow() + index : countToHigh() - 1 - index);
     }
 
-    /** {@link TreeSet#clear()} */
+    /**
+     * Counts the elements from fromElement (inclusive) to toElement (exclusive) in the order of this set
+     * @throws IllegalArgumentException if fromElement is after toElement
+     */
+    public int countInRange(@Nullable E fromElement, @Nullable E toElement)
+            throws IllegalArgumentException, ClassCastException {
+        int cmpResult = tree.compare(fromElement, toElement);
+        if (isAscending ? cmpResult > 0 : cmpResult < 0) {
+            throw new IllegalArgumentException("fromElement is after toElement");
+        }
+        return rank(toElement) - rank(fromElement);
+    }
+
+    /** {@link TreeSet#clear()}, removes only the elements in the bounds of a view */
     @Override
     public void clear() {
-        tree.clear();
+        if (range.isFull()) {
+            tree.clear();
+            return;
+        }
+        for (int size = size(); size > 0; size--) {
+            tree.remove(tree.first(range));
+        }
     }
 
     /**
-     * Binary Search Tree
+     * Red-black tree: binary search tree, which nodes are red or black,
+     * red nodes have only black children and all the paths from the root to the leaves
+     * have the same number of black nodes, so the height is O(log n).
+     * Balancing follows Cormen et al., "Introduction to Algorithms", chapter 13
      */
     private class Tree {
 
@@ -128,6 +230,9 @@ public class MyTreeSet<E> extends AbstractSet<E> implements MyTreeSetInterface<E
             Node right = null;
             Node parent;
             E key;
+            boolean isRed = true;
+            /** Number of nodes in the subtree */
+            int size = 1;
 
             Node(@Nullable E key, @Nullable Node parent) {
                 this.key = key;
@@ -144,85 +249,59 @@ public class MyTreeSet<E> extends AbstractSet<E> implements MyTreeSetInterface<E
         }
 
         @Nullable
-        private E first() throws NoSuchElementException {
-            if (size == 0) {
+        private E first(@NotNull Range<E> range) throws NoSuchElementException {
+            Node node = lowestNode(range);
+            if (node == null || range.tooHigh(node.key)) {
                 throw new NoSuchElementException();
             }
-            return getKey(firstNode());
+            return node.key;
         }
 
         @Nullable
-        private E last() throws NoSuchElementException {
-            if (size == 0) {
+        private E last(@NotNull Range<E> range) throws NoSuchElementException {
+            Node node = highestNode(range);
+            if (node == null || range.tooLow(node.key)) {
                 throw new NoSuchElementException();
             }
-            return getKey(lastNode());
+            return node.key;
         }
 
         @NotNull
-        private Iterator<E> ascendingIterator() {
-            return new AscendingIterator();
+        private Iterator<E> ascendingIterator(@NotNull Range<E> range) {
+            return new AscendingIterator(range);
         }
 
         @NotNull
-        private Iterator<E> descendingIterator() {
-            return new DescendingIterator();
+        private Iterator<E> descendingIterator(@NotNull Range<E> range) {
+            return new DescendingIterator(range);
         }
 
         private boolean contains(@Nullable Object o) throws ClassCastException {
-            if (comparator == null && o == null) {
-                throw new NullPointerException();
-            }
-            Node node = root;
-            while (node != null) {
-                int cmpResult = compare(o, node.key);
-                if (cmpResult == 0) {
-                    return true;
-                } else if (cmpResult < 0) {
-                    node = node.left;
-                } else {
-                    node = node.right;
-                }
-            }
-            return false;
+            return findNode(o) != null;
         }
 
         @Nullable
-        private E lower(@Nullable E e) {
-            Node node = lowerBound(e);
-            if (node == null) {
-                return last();
-            } else {
-                if (node == firstNode()) {
-                    return null;
-                }
-                return getKey(previousNode(node));
-            }
+        private E lower(@Nullable E e, @NotNull Range<E> range) {
+            Node node = range.tooHigh(e) ? highestNode(range) : nodeBefore(lowerBound(e));
+            return node == null || range.tooLow(node.key) ? null : node.key;
         }
 
         @Nullable
-        private E floor(@Nullable E e) {
-            Node node = upperBound(e);
-            if (node == null) {
-                return last();
-            } else {
-                if (node == firstNode()) {
-                    return null;
-                }
-                return getKey(previousNode(node));
-            }
+        private E floor(@Nullable E e, @NotNull Range<E> range) {
+            Node node = range.tooHigh(e) ? highestNode(range) : nodeBefore(upperBound(e));
+            return node == null || range.tooLow(node.key) ? null : node.key;
         }
 
         @Nullable
-        private E higher(@Nullable E e) {
-            Node node = upperBound(e);
-            return getKey(node);
+        private E higher(@Nullable E e, @NotNull Range<E> range) {
+            Node node = range.tooLow(e) ? lowestNode(range) : upperBound(e);
+            return node == null || range.tooHigh(node.key) ? null : node.key;
         }
 
         @Nullable
-        private E ceiling(@Nullable E e) {
-            Node node = lowerBound(e);
-            return getKey(node);
+        private E ceiling(@Nullable E e, @NotNull Range<E> range) {
+            Node node = range.tooLow(e) ? lowestNode(range) : lowerBound(e);
+            return node == null || range.tooHigh(node.key) ? null : node.key;
         }
 
         private void checkNull() {
@@ -235,95 +314,300 @@ public class MyTreeSet<E> extends AbstractSet<E> implements MyTreeSetInterface<E
             }
             if (root == null) {
                 root = new Node(e, null);
+                root.isRed = false;
                 size++;
                 version++;
                 return true;
             }
-            Node node = lowerBound(e);
-            if (node != null && compare(e, node.key) == 0) {
-                return false;
-            }
-            if (node == null || node.left != null) {
-                if (node == null) {
-                    node = root;
-                } else {
+            Node node = root;
+            Node parent;
+            int cmpResult;
+            do {
+                parent = node;
+                cmpResult = compare(e, node.key);
+                if (cmpResult == 0) {
+                    return false;
+                } else if (cmpResult < 0) {
                     node = node.left;
-                }
-                while (node.right != null) {
+                } else {
                     node = node.right;
                 }
-                node.right = new Node(e, node);
+            } while (node != null);
+            Node added = new Node(e, parent);
+            if (cmpResult < 0) {
+                parent.left = added;
             } else {
-                node.left = new Node(e, node);
+                parent.right = added;
+            }
+            for (Node ancestor = parent; ancestor != null; ancestor = ancestor.parent) {
+                ancestor.size++;
             }
+            fixAfterInsertion(added);
             version++;
             size++;
             return true;
         }
 
         private boolean remove(@Nullable Object o) throws ClassCastException {
-            if (!contains(o)) {
+            Node node = findNode(o);
+            if (node == null) {
                 return false;
             }
-            Node node = lowerBound(o);
-            if (node.left == null && node.right == null) {
-                if (node.parent == null) {
-                    root = null;
+            deleteNode(node);
+            size--;
+            version++;
+            return true;
+        }
+
+        /**
+         * Counts the keys less than (or equal to, if inclusive) the given one
+         * by the sizes of the left subtrees on the search path
+         */
+        private int countLess(@Nullable Object o, boolean inclusive) throws ClassCastException {
+            Node node = root;
+            int count = 0;
+            while (node != null) {
+                int cmpResult = compare(o, node.key);
+                if (cmpResult > 0 || (inclusive && cmpResult == 0)) {
+                    count += sizeOf(node.left) + 1;
+                    node = node.right;
                 } else {
-                    if (node.parent.left == node) {
-                        node.parent.left = null;
-                    } else {
-                        node.parent.right = null;
-                    }
+                    node = node.left;
                 }
             }
-            else if (node.right == null) {
-                if (node.parent == null) {
-                    root = node.left;
-                }
-                else if (node.parent.left == node) {
-                    node.parent.left = node.left;
-                    node.left.parent = node.parent;
+            return count;
+        }
+
+        /** Finds the key with given index in ascending order, the index must be in [0, size) */
+        @Nullable
+        private E select(int index) {
+            Node node = root;
+            while (true) {
+                int leftSize = sizeOf(node.left);
+                if (index < leftSize) {
+                    node = node.left;
+                } else if (index == leftSize) {
+                    return node.key;
                 } else {
-                    node.parent.right = node.left;
-                    node.left.parent = node.parent;
-                }
-            } else if (node.left == null) {
-                if (node.parent == null) {
-                    root = node.right;
+                    index -= leftSize + 1;
+                    node = node.right;
                 }
-                else if (node.parent.left == node) {
-                    node.parent.left = node.right;
-                    node.right.parent = node.parent;
+            }
+        }
+
+        private void clear() {
+            root = null;
+            size = 0;
+            version++;
+        }
+
+        /* Even more private methods */
+
+        @Nullable
+        private Node findNode(@Nullable Object o) throws ClassCastException {
+            if (comparator == null && o == null) {
+                throw new NullPointerException();
+            }
+            Node node = root;
+            while (node != null) {
+                int cmpResult = compare(o, node.key);
+                if (cmpResult == 0) {
+                    return node;
+                } else if (cmpResult < 0) {
+                    node = node.left;
                 } else {
-                    node.parent.right = node.right;
-                    node.right.parent = node.parent;
+                    node = node.right;
                 }
+            }
+            return null;
+        }
 
-            } else {
+        /**
+         * Removes the node from the tree.
+         * A node with two children takes the key of the next node, which is removed instead
+         */
+        private void deleteNode(@NotNull Node node) {
+            if (node.left != null && node.right != null) {
                 Node next = nextNode(node);
                 swapKeys(node, next);
-                if (next.parent.left == next) {
-                    next.parent.left = next.right;
+                node = next;
+            }
+            for (Node ancestor = node.parent; ancestor != null; ancestor = ancestor.parent) {
+                ancestor.size--;
+            }
+            Node replacement = node.left != null ? node.left : node.right;
+            if (replacement != null) {
+                replaceChild(node, replacement);
+                node.left = null;
+                node.right = null;
+                node.parent = null;
+                if (!node.isRed) {
+                    fixAfterDeletion(replacement);
+                }
+            } else if (node.parent == null) {
+                root = null;
+            } else {
+                // the leaf stays linked while the tree is rebalanced, so it must not be counted
+                node.size = 0;
+                if (!node.isRed) {
+                    fixAfterDeletion(node);
+                }
+                if (node.parent != null) {
+                    replaceChild(node, null);
+                    node.parent = null;
+                }
+            }
+        }
+
+        /** Puts the replacement (which may be null) into the place of the node in its parent */
+        private void replaceChild(@NotNull Node node, @Nullable Node replacement) {
+            if (replacement != null) {
+                replacement.parent = node.parent;
+            }
+            if (node.parent == null) {
+                root = replacement;
+            } else if (node.parent.left == node) {
+                node.parent.left = replacement;
+            } else {
+                node.parent.right = replacement;
+            }
+        }
+
+        /** Restores the red-black properties after the red node has been added */
+        private void fixAfterInsertion(@NotNull Node node) {
+            while (node != root && isRed(node.parent)) {
+                Node parent = node.parent;
+                Node grandparent = parent.parent;
+                if (parent == grandparent.left) {
+                    Node uncle = grandparent.right;
+                    if (isRed(uncle)) {
+                        parent.isRed = false;
+                        uncle.isRed = false;
+                        grandparent.isRed = true;
+                        node = grandparent;
+                    } else {
+                        if (node == parent.right) {
+                            node = parent;
+                            rotateLeft(node);
+                            parent = node.parent;
+                        }
+                        parent.isRed = false;
+                        grandparent.isRed = true;
+                        rotateRight(grandparent);
+                    }
                 } else {
-                    next.parent.right = next.right;
+                    Node uncle = grandparent.left;
+                    if (isRed(uncle)) {
+                        parent.isRed = false;
+                        uncle.isRed = false;
+                        grandparent.isRed = true;
+                        node = grandparent;
+                    } else {
+                        if (node == parent.left) {
+                            node = parent;
+                            rotateRight(node);
+                            parent = node.parent;
+                        }
+                        parent.isRed = false;
+                        grandparent.isRed = true;
+                        rotateLeft(grandparent);
+                    }
                 }
-                if (next.right != null) {
-                    next.right.parent = next.parent;
+            }
+            root.isRed = false;
+        }
+
+        /** Restores the red-black properties after a black node has been removed above the given one */
+        private void fixAfterDeletion(@NotNull Node node) {
+            while (node != root && !isRed(node)) {
+                Node parent = node.parent;
+                if (node == parent.left) {
+                    Node sibling = parent.right;
+                    if (isRed(sibling)) {
+                        sibling.isRed = false;
+                        parent.isRed = true;
+                        rotateLeft(parent);
+                        sibling = parent.right;
+                    }
+                    if (!isRed(sibling.left) && !isRed(sibling.right)) {
+                        sibling.isRed = true;
+                        node = parent;
+                    } else {
+                        if (!isRed(sibling.right)) {
+                            sibling.left.isRed = false;
+                            sibling.isRed = true;
+                            rotateRight(sibling);
+                            sibling = parent.right;
+                        }
+                        sibling.isRed = parent.isRed;
+                        parent.isRed = false;
+                        sibling.right.isRed = false;
+                        rotateLeft(parent);
+                        node = root;
+                    }
+                } else {
+                    Node sibling = parent.left;
+                    if (isRed(sibling)) {
+                        sibling.isRed = false;
+                        parent.isRed = true;
+                        rotateRight(parent);
+                        sibling = parent.left;
+                    }
+                    if (!isRed(sibling.left) && !isRed(sibling.right)) {
+                        sibling.isRed = true;
+                        node = parent;
+                    } else {
+                        if (!isRed(sibling.left)) {
+                            sibling.right.isRed = false;
+                            sibling.isRed = true;
+                            rotateLeft(sibling);
+                            sibling = parent.left;
+                        }
+                        sibling.isRed = parent.isRed;
+                        parent.isRed = false;
+                        sibling.left.isRed = false;
+                        rotateRight(parent);
+                        node = root;
+                    }
                 }
             }
-            size--;
-            version++;
-            return true;
+            node.isRed = false;
         }
 
-        private void clear() {
-            root = null;
-            size = 0;
-            version++;
+        private int sizeOf(@Nullable Node node) {
+            return node == null ? 0 : node.size;
         }
 
-        /* Even more private methods */
+        /** Null leaves are black */
+        private boolean isRed(@Nullable Node node) {
+            return node != null && node.isRed;
+        }
+
+        private void rotateLeft(@NotNull Node node) {
+            Node right = node.right;
+            node.right = right.left;
+            if (right.left != null) {
+                right.left.parent = node;
+            }
+            replaceChild(node, right);
+            right.left = node;
+            node.parent = right;
+            right.size = node.size;
+            node.size = sizeOf(node.left) + sizeOf(node.right) + 1;
+        }
+
+        private void rotateRight(@NotNull Node node) {
+            Node left = node.left;
+            node.left = left.right;
+            if (left.right != null) {
+                left.right.parent = node;
+            }
+            replaceChild(node, left);
+            left.right = node;
+            node.parent = left;
+            left.size = node.size;
+            node.size = sizeOf(node.left) + sizeOf(node.right) + 1;
+        }
 
         @SuppressWarnings("unchecked")
         private int compare(@Nullable Object o1, @Nullable E o2) {
@@ -346,7 +630,8 @@ public class MyTreeSet<E> extends AbstractSet<E> implements MyTreeSetInterface<E
             return node;
         }
 
-        @NotNull
+        /** Gets the next node in the ascending order or null if the node is the last one */
+        @Nullable
         private Node nextNode(@NotNull Node node) {
             if (node.right != null) {
                 node = node.right;
@@ -355,13 +640,14 @@ public class MyTreeSet<E> extends AbstractSet<E> implements MyTreeSetInterface<E
                 }
                 return node;
             }
-            while (node.parent.right == node) {
+            while (node.parent != null && node.parent.right == node) {
                 node = node.parent;
             }
             return node.parent;
         }
 
-        @NotNull
+        /** Gets the previous node in the ascending order or null if the node is the first one */
+        @Nullable
         private Node previousNode(@NotNull Node node) {
             if (node.left != null) {
                 node = node.left;
@@ -370,12 +656,36 @@ public class MyTreeSet<E> extends AbstractSet<E> implements MyTreeSetInterface<E
                 }
                 return node;
             }
-            while (node.parent.left == node) {
+            while (node.parent != null && node.parent.left == node) {
                 node = node.parent;
             }
             return node.parent;
         }
 
+        /** Gets the node before the given one, or the last node if the given one is null */
+        @Nullable
+        private Node nodeBefore(@Nullable Node node) {
+            return node == null ? lastNode() : previousNode(node);
+        }
+
+        /** Gets the first node, which is not before the range (it may be after the range) */
+        @Nullable
+        private Node lowestNode(@NotNull Range<E> range) {
+            if (!range.hasLow()) {
+                return firstNode();
+            }
+            return range.isLowInclusive() ? lowerBound(range.low()) : upperBound(range.low());
+        }
+
+        /** Gets the last node, which is not after the range (it may be before the range) */
+        @Nullable
+        private Node highestNode(@NotNull Range<E> range) {
+            if (!range.hasHigh()) {
+                return lastNode();
+            }
+            return nodeBefore(range.isHighInclusive() ? upperBound(range.high()) : lowerBound(range.high()));
+        }
+
         private void swapKeys(@NotNull Node node1, @NotNull Node node2) {
             E tmp;
             tmp = node1.key;
@@ -415,36 +725,31 @@ public class MyTreeSet<E> extends AbstractSet<E> implements MyTreeSetInterface<E
             return result;
         }
 
-        @Nullable
-        private E getKey(Node node) {
-            if (node == null) {
-                return null;
-            }
-            return node.key;
-        }
-
         private class AscendingIterator implements Iterator<E> {
 
-            private Node current;
+            private final Range<E> range;
+            private Node next;
             private int treeVersion = version;
 
+            private AscendingIterator(@NotNull Range<E> range) {
+                this.range = range;
+                next = lowestNode(range);
+            }
+
             @Override
             public boolean hasNext() throws ConcurrentModificationException {
                 if (treeVersion != version) {
                     throw new ConcurrentModificationException();
                 }
-                return current != lastNode();
+                return next != null && !range.tooHigh(next.key);
             }
 
             @Override
             public E next() throws NoSuchElementException, ConcurrentModificationException {
                 if (hasNext()) {
-                    if (current == null) {
-                        current = firstNode();
-                    } else {
-                        current = nextNode(current);
-                    }
-                    return getKey(current);
+                    E key = next.key;
+                    next = nextNode(next);
+                    return key;
                 } else {
                     throw new NoSuchElementException();
                 }
@@ -453,26 +758,29 @@ public class MyTreeSet<E> extends AbstractSet<E> implements MyTreeSetInterface<E
 
         private class DescendingIterator implements Iterator<E> {
 
-            private Node current;
-            int treeVersion = version;
+            private final Range<E> range;
+            private Node next;
+            private int treeVersion = version;
+
+            private DescendingIterator(@NotNull Range<E> range) {
+                this.range = range;
+                next = highestNode(range);
+            }
 
             @Override
             public boolean hasNext() throws ConcurrentModificationException {
                 if (treeVersion != version) {
                     throw new ConcurrentModificationException();
                 }
-                return current != firstNode();
+                return next != null && !range.tooLow(next.key);
             }
 
             @Override
             public E next() throws NoSuchElementException, ConcurrentModificationException {
                 if (hasNext()) {
-                    if (current == null) {
-                        current = lastNode();
-                    } else {
-                        current = previousNode(current);
-                    }
-                    return getKey(current);
+                    E key = next.key;
+                    next = previousNode(next);
+                    return key;
                 } else {
                     throw new NoSuchElementException();
                 }
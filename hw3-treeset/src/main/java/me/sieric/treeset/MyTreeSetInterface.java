@@ -32,4 +32,29 @@ public interface MyTreeSetInterface<E> extends Set<E> {
 
     /** {@link TreeSet#higher(E)} **/
     E higher(E e);
+
+
+    /** {@link TreeSet#subSet(E, boolean, E, boolean)} **/
+    MyTreeSetInterface<E> subSet(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive);
+
+    /** {@link TreeSet#headSet(E, boolean)} **/
+    MyTreeSetInterface<E> headSet(E toElement, boolean inclusive);
+
+    /** {@link TreeSet#tailSet(E, boolean)} **/
+    MyTreeSetInterface<E> tailSet(E fromElement, boolean inclusive);
+
+    /** {@link TreeSet#subSet(E, E)} **/
+    default MyTreeSetInterface<E> subSet(E fromElement, E toElement) {
+        return subSet(fromElement, true, toElement, false);
+    }
+
+    /** {@link TreeSet#headSet(E)} **/
+    default MyTreeSetInterface<E> headSet(E toElement) {
+        return headSet(toElement, false);
+    }
+
+    /** {@link TreeSet#tailSet(E)} **/
+    default MyTreeSetInterface<E> tailSet(E fromElement) {
+        return tailSet(fromElement, true);
+    }
 }
\ No newline at end of file
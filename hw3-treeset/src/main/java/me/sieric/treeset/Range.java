@@ -0,0 +1,135 @@
+package me.sieric.treeset;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.ToIntBiFunction;
+
+/**
+ * Bounds of a range view of a set in the ascending order of its keys, each bound may be absent.
+ * Used by the sets to check keys against the bounds of the view
+ * @param <E> - type of the stored keys
+ */
+class Range<E> {
+
+    /** Comparison of the set: an object (first) with a key (second) */
+    private final ToIntBiFunction<Object, E> comparator;
+
+    private final boolean hasLow;
+    private final E low;
+    private final boolean lowInclusive;
+
+    private final boolean hasHigh;
+    private final E high;
+    private final boolean highInclusive;
+
+    private Range(@NotNull ToIntBiFunction<Object, E> comparator,
+                  boolean hasLow, @Nullable E low, boolean lowInclusive,
+                  boolean hasHigh, @Nullable E high, boolean highInclusive) {
+        this.comparator = comparator;
+        this.hasLow = hasLow;
+        this.low = low;
+        this.lowInclusive = lowInclusive;
+        this.hasHigh = hasHigh;
+        this.high = high;
+        this.highInclusive = highInclusive;
+    }
+
+    /** Creates the range without bounds */
+    @NotNull
+    static <E> Range<E> full(@NotNull ToIntBiFunction<Object, E> comparator) {
+        return new Range<>(comparator, false, null, false, false, null, false);
+    }
+
+    /**
+     * Creates the range inside this one, an absent bound is taken from this range
+     * @throws IllegalArgumentException if a new bound is out of this range or low is greater than high
+     */
+    @NotNull
+    Range<E> narrow(boolean hasLow, @Nullable E low, boolean lowInclusive,
+                    boolean hasHigh, @Nullable E high, boolean highInclusive) throws IllegalArgumentException {
+        if (hasLow && hasHigh && comparator.applyAsInt(low, high) > 0) {
+            throw new IllegalArgumentException("fromKey > toKey");
+        }
+        if (hasLow) {
+            checkInClosedRange(low);
+            if (this.hasLow && comparator.applyAsInt(low, this.low) == 0) {
+                lowInclusive &= this.lowInclusive;
+            }
+        } else {
+            low = this.low;
+            lowInclusive = this.lowInclusive;
+        }
+        if (hasHigh) {
+            checkInClosedRange(high);
+            if (this.hasHigh && comparator.applyAsInt(high, this.high) == 0) {
+                highInclusive &= this.highInclusive;
+            }
+        } else {
+            high = this.high;
+            highInclusive = this.highInclusive;
+        }
+        return new Range<>(comparator, hasLow || this.hasLow, low, lowInclusive,
+                hasHigh || this.hasHigh, high, highInclusive);
+    }
+
+    private void checkInClosedRange(@Nullable E bound) throws IllegalArgumentException {
+        if ((hasLow && comparator.applyAsInt(bound, low) < 0) || (hasHigh && comparator.applyAsInt(bound, high) > 0)) {
+            throw new IllegalArgumentException("Bound is out of range");
+        }
+    }
+
+    /** Checks if the range has no bounds */
+    boolean isFull() {
+        return !hasLow && !hasHigh;
+    }
+
+    boolean hasLow() {
+        return hasLow;
+    }
+
+    @Nullable
+    E low() {
+        return low;
+    }
+
+    boolean isLowInclusive() {
+        return lowInclusive;
+    }
+
+    boolean hasHigh() {
+        return hasHigh;
+    }
+
+    @Nullable
+    E high() {
+        return high;
+    }
+
+    boolean isHighInclusive() {
+        return highInclusive;
+    }
+
+    /** Checks if the object is before the low bound */
+    boolean tooLow(@Nullable Object o) throws ClassCastException {
+        if (!hasLow) {
+            return false;
+        }
+        int cmpResult = comparator.applyAsInt(o, low);
+        return cmpResult < 0 || (cmpResult == 0 && !lowInclusive);
+    }
+
+    /** Checks if the object is after the high bound */
+    boolean tooHigh(@Nullable Object o) throws ClassCastException {
+        if (!hasHigh) {
+            return false;
+        }
+        int cmpResult = comparator.applyAsInt(o, high);
+        return cmpResult > 0 || (cmpResult == 0 && !highInclusive);
+    }
+
+    /** Checks if the object is between the bounds */
+    boolean contains(@Nullable Object o) throws ClassCastException {
+        return !tooLow(o) && !tooHigh(o);
+    }
+}
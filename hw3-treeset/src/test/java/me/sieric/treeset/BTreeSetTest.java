@@ -0,0 +1,118 @@
+package me.sieric.treeset;
+
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BTreeSetTest extends MyTreeSetInterfaceTest<BTreeSet<Integer>> {
+
+    @Override
+    BTreeSet<Integer> createSet() {
+        return new BTreeSet<>();
+    }
+
+    @Override
+    <E> BTreeSet<E> createSet(@Nullable Comparator<? super E> comparator) {
+        return new BTreeSet<>(comparator);
+    }
+
+    @Test
+    void testLargeRandomAgainstTreeSet() {
+        Random random = new Random(42);
+        TreeSet<Integer> expected = new TreeSet<>();
+        BTreeSet<Integer> set = new BTreeSet<>();
+        for (int i = 0; i < 200000; i++) {
+            int key = random.nextInt(20000);
+            if (random.nextInt(5) < 3 - (i / 100000) * 2) {
+                assertEquals(set.add(key), expected.add(key));
+            } else {
+                assertEquals(set.remove(key), expected.remove(key));
+            }
+            assertEquals(set.size(), expected.size());
+            assertEquals(set.lower(key), expected.lower(key));
+            assertEquals(set.floor(key), expected.floor(key));
+            assertEquals(set.ceiling(key), expected.ceiling(key));
+            assertEquals(set.higher(key), expected.higher(key));
+        }
+        var iterator = set.iterator();
+        for (Integer key : expected) {
+            assertEquals(iterator.next(), key);
+        }
+        assertFalse(iterator.hasNext());
+        var descendingIterator = set.descendingIterator();
+        for (Integer key : expected.descendingSet()) {
+            assertEquals(descendingIterator.next(), key);
+        }
+        assertFalse(descendingIterator.hasNext());
+    }
+
+    @Test
+    void testRemoveAll() {
+        BTreeSet<Integer> set = new BTreeSet<>();
+        for (int i = 0; i < 10000; i++) {
+            set.add(i);
+        }
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(set.remove(i));
+            assertEquals(set.size(), 10000 - i - 1);
+            if (i < 9999) {
+                assertEquals(set.first(), (Integer) (i + 1));
+            }
+        }
+        assertFalse(set.iterator().hasNext());
+        assertThrows(NoSuchElementException.class, set::last);
+        assertTrue(set.add(5));
+        assertEquals(set.ceiling(0), (Integer) 5);
+    }
+
+    @Test
+    void testNodesStayHalfFullAfterRemovals() {
+        BTreeSet<Integer> set = new BTreeSet<>();
+        for (int i = 0; i < 100000; i++) {
+            set.add(i);
+        }
+        for (int i = 0; i < 100000; i++) {
+            if (i % 3 != 0) {
+                assertTrue(set.remove(i));
+            }
+        }
+        assertEquals(set.size(), 33334);
+        assertTrue(set.leafCount() <= set.size() / 32 + 1);
+        var iterator = set.iterator();
+        for (int i = 0; i < 100000; i += 3) {
+            assertEquals(iterator.next(), (Integer) i);
+        }
+        assertFalse(iterator.hasNext());
+        for (int i = 0; i < 100000; i += 3) {
+            assertEquals(set.floor(i + 2), (Integer) i);
+            assertEquals(set.higher(i), i + 3 < 100000 ? (Integer) (i + 3) : null);
+        }
+    }
+
+    @Test
+    void testRemovalsFromBothEnds() {
+        BTreeSet<Integer> set = new BTreeSet<>();
+        for (int i = 0; i < 20000; i++) {
+            set.add(i);
+        }
+        for (int i = 0; i < 9000; i++) {
+            assertTrue(set.remove(i));
+            assertTrue(set.remove(19999 - i));
+        }
+        assertEquals(set.size(), 2000);
+        assertEquals(set.first(), (Integer) 9000);
+        assertEquals(set.last(), (Integer) 10999);
+        assertTrue(set.leafCount() <= set.size() / 32 + 1);
+        var descendingIterator = set.descendingIterator();
+        for (int i = 10999; i >= 9000; i--) {
+            assertEquals(descendingIterator.next(), (Integer) i);
+        }
+        assertFalse(descendingIterator.hasNext());
+    }
+}
@@ -0,0 +1,271 @@
+package me.sieric.treeset;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongTreeSetTest {
+    private LongTreeSet tree;
+    private LongTreeSet emptyTree;
+
+    @BeforeEach
+    void setUp() {
+        tree = new LongTreeSet();
+        emptyTree = new LongTreeSet();
+        for (int i = 0; i < 10; ++i) {
+            tree.add((15 + i * i) % 30);
+        }
+        // tree = {1, 4, 6, 10, 15, 16, 19, 21, 24}
+    }
+
+    @Test
+    void testAdd() {
+        assertTrue(tree.add(3));
+        assertFalse(tree.add(4));
+        assertTrue(tree.add(Long.MIN_VALUE));
+        assertTrue(tree.add(Long.MAX_VALUE));
+        assertEquals(tree.first(), Long.MIN_VALUE);
+        assertEquals(tree.last(), Long.MAX_VALUE);
+    }
+
+    @Test
+    void testSize() {
+        assertEquals(tree.size(), 9);
+        assertFalse(tree.add(1));
+        assertEquals(tree.size(), 9);
+        assertTrue(tree.add(2));
+        assertEquals(tree.size(), 10);
+
+        assertEquals(emptyTree.size(), 0);
+        assertTrue(emptyTree.isEmpty());
+    }
+
+    @Test
+    void testContainsAndRemove() {
+        assertTrue(tree.contains(1));
+        assertFalse(tree.contains(2));
+        assertTrue(tree.remove(1));
+        assertFalse(tree.remove(1));
+        assertFalse(tree.contains(1));
+        assertEquals(tree.size(), 8);
+        assertFalse(emptyTree.remove(12));
+    }
+
+    @Test
+    void testIterator() {
+        var iterator = tree.iterator();
+        long[] expected = {1, 4, 6, 10, 15, 16, 19, 21, 24};
+        for (long key : expected) {
+            assertTrue(iterator.hasNext());
+            assertEquals(iterator.nextLong(), key);
+        }
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::nextLong);
+        assertFalse(emptyTree.iterator().hasNext());
+    }
+
+    @Test
+    void testDescendingIterator() {
+        var iterator = tree.descendingIterator();
+        long[] expected = {24, 21, 19, 16, 15, 10, 6, 4, 1};
+        for (long key : expected) {
+            assertTrue(iterator.hasNext());
+            assertEquals(iterator.nextLong(), key);
+        }
+        assertFalse(iterator.hasNext());
+        assertFalse(emptyTree.descendingIterator().hasNext());
+    }
+
+    @Test
+    void testFirstAndLast() {
+        assertEquals(tree.first(), 1);
+        assertEquals(tree.last(), 24);
+        assertThrows(NoSuchElementException.class, () -> emptyTree.first());
+        assertThrows(NoSuchElementException.class, () -> emptyTree.last());
+    }
+
+    @Test
+    void testNavigation() {
+        assertEquals(tree.lower(10), 6);
+        assertEquals(tree.lower(11), 10);
+        assertThrows(NoSuchElementException.class, () -> tree.lower(1));
+        assertEquals(tree.floor(10), 10);
+        assertEquals(tree.floor(11), 10);
+        assertThrows(NoSuchElementException.class, () -> tree.floor(0));
+        assertEquals(tree.ceiling(10), 10);
+        assertEquals(tree.ceiling(11), 15);
+        assertThrows(NoSuchElementException.class, () -> tree.ceiling(25));
+        assertEquals(tree.higher(10), 15);
+        assertEquals(tree.higher(-100), 1);
+        assertThrows(NoSuchElementException.class, () -> tree.higher(24));
+        assertThrows(NoSuchElementException.class, () -> emptyTree.higher(0));
+    }
+
+    @Test
+    void testNavigationWithDefault() {
+        assertEquals(tree.lower(10, -1), 6);
+        assertEquals(tree.lower(1, -1), -1);
+        assertEquals(tree.floor(11, -1), 10);
+        assertEquals(tree.floor(0, -1), -1);
+        assertEquals(tree.ceiling(11, -1), 15);
+        assertEquals(tree.ceiling(25, -1), -1);
+        assertEquals(tree.higher(10, -1), 15);
+        assertEquals(tree.higher(24, -1), -1);
+        assertEquals(emptyTree.floor(0, 42), 42);
+        assertEquals(emptyTree.ceiling(0, 42), 42);
+
+        var descendingSet = tree.descendingSet();
+        assertEquals(descendingSet.lower(24, -1), -1);
+        assertEquals(descendingSet.lower(10, -1), 15);
+        assertEquals(descendingSet.floor(25, -1), -1);
+        assertEquals(descendingSet.ceiling(0, -1), -1);
+        assertEquals(descendingSet.ceiling(11, -1), 10);
+        assertEquals(descendingSet.higher(1, -1), -1);
+        assertThrows(NoSuchElementException.class, () -> descendingSet.lower(24));
+        assertThrows(NoSuchElementException.class, () -> descendingSet.higher(1));
+        assertEquals(descendingSet.higher(2), 1);
+    }
+
+    @Test
+    void testExtremeKeys() {
+        assertTrue(emptyTree.add(Long.MIN_VALUE));
+        assertTrue(emptyTree.add(Long.MAX_VALUE));
+        assertEquals(emptyTree.floor(Long.MIN_VALUE), Long.MIN_VALUE);
+        assertEquals(emptyTree.ceiling(Long.MAX_VALUE), Long.MAX_VALUE);
+        assertEquals(emptyTree.lower(Long.MAX_VALUE), Long.MIN_VALUE);
+        assertEquals(emptyTree.higher(Long.MIN_VALUE), Long.MAX_VALUE);
+        assertThrows(NoSuchElementException.class, () -> emptyTree.lower(Long.MIN_VALUE));
+        assertThrows(NoSuchElementException.class, () -> emptyTree.higher(Long.MAX_VALUE));
+    }
+
+    @Test
+    void testClear() {
+        tree.clear();
+        assertEquals(tree.size(), 0);
+        assertFalse(tree.contains(1));
+        assertTrue(tree.add(1));
+        assertEquals(tree.size(), 1);
+    }
+
+    @Test
+    void testDescendingSet() {
+        var descendingSet = tree.descendingSet();
+        assertEquals(descendingSet.first(), 24);
+        assertEquals(descendingSet.last(), 1);
+        assertEquals(descendingSet.lower(10), 15);
+        assertEquals(descendingSet.floor(11), 15);
+        assertEquals(descendingSet.ceiling(11), 10);
+        assertEquals(descendingSet.higher(10), 6);
+        assertEquals(descendingSet.iterator().nextLong(), 24);
+        assertEquals(descendingSet.descendingIterator().nextLong(), 1);
+        assertEquals(descendingSet.descendingSet().first(), 1);
+
+        assertTrue(descendingSet.add(100));
+        assertTrue(tree.contains(100));
+        assertEquals(tree.last(), 100);
+    }
+
+    @Test
+    void testIteratorInvalidation() {
+        var iterator = tree.iterator();
+        iterator.nextLong();
+        tree.add(2);
+        assertThrows(ConcurrentModificationException.class, iterator::hasNext);
+        assertThrows(ConcurrentModificationException.class, iterator::nextLong);
+    }
+
+    @Test
+    void testForEach() {
+        long sum = 0;
+        for (long key : tree) {
+            sum += key;
+        }
+        assertEquals(sum, 116);
+    }
+
+    @Test
+    void testLargeRandomAgainstTreeSet() {
+        Random random = new Random(239);
+        TreeSet<Long> expected = new TreeSet<>();
+        LongTreeSet actual = new LongTreeSet();
+        for (int i = 0; i < 100000; i++) {
+            long key = random.nextInt(20000) - 10000L;
+            if (random.nextInt(3) == 0) {
+                assertEquals(actual.remove(key), expected.remove(key));
+            } else {
+                assertEquals(actual.add(key), expected.add(key));
+            }
+            if (i % 1000 == 0 && !expected.isEmpty()) {
+                assertEquals(actual.size(), expected.size());
+                assertEquals(actual.first(), (long) expected.first());
+                assertEquals(actual.last(), (long) expected.last());
+                Long floor = expected.floor(key);
+                assertEquals(actual.floor(key, Long.MIN_VALUE), floor == null ? Long.MIN_VALUE : floor);
+                if (floor == null) {
+                    assertThrows(NoSuchElementException.class, () -> actual.floor(key));
+                } else {
+                    assertEquals(actual.floor(key), (long) floor);
+                }
+                Long higher = expected.higher(key);
+                assertEquals(actual.higher(key, Long.MAX_VALUE), higher == null ? Long.MAX_VALUE : higher);
+                if (higher == null) {
+                    assertThrows(NoSuchElementException.class, () -> actual.higher(key));
+                } else {
+                    assertEquals(actual.higher(key), (long) higher);
+                }
+            }
+        }
+        var iterator = actual.iterator();
+        for (long key : expected) {
+            assertEquals(iterator.nextLong(), key);
+        }
+        assertFalse(iterator.hasNext());
+        var descendingIterator = actual.descendingIterator();
+        for (long key : expected.descendingSet()) {
+            assertEquals(descendingIterator.nextLong(), key);
+        }
+        assertFalse(descendingIterator.hasNext());
+    }
+
+    @Test
+    void testRemoveAll() {
+        for (long i = 0; i < 10000; i++) {
+            assertTrue(emptyTree.add(i * 7));
+        }
+        for (long i = 0; i < 10000; i++) {
+            assertTrue(emptyTree.remove(i * 7));
+        }
+        assertTrue(emptyTree.isEmpty());
+        assertFalse(emptyTree.iterator().hasNext());
+        assertTrue(emptyTree.add(5));
+        assertEquals(emptyTree.first(), 5);
+        assertEquals(emptyTree.last(), 5);
+    }
+
+    @Test
+    void testNodesStayHalfFullAfterRemovals() {
+        for (long i = 0; i < 100000; i++) {
+            emptyTree.add(i);
+        }
+        for (long i = 0; i < 100000; i++) {
+            if (i % 3 != 0) {
+                assertTrue(emptyTree.remove(i));
+            }
+        }
+        assertEquals(emptyTree.size(), 33334);
+        assertTrue(emptyTree.leafCount() <= emptyTree.size() / 32 + 1);
+        var iterator = emptyTree.iterator();
+        for (long i = 0; i < 100000; i += 3) {
+            assertEquals(iterator.nextLong(), i);
+            assertEquals(emptyTree.floor(i + 2), i);
+            assertEquals(emptyTree.higher(i, -1), i + 3 < 100000 ? i + 3 : -1);
+        }
+        assertFalse(iterator.hasNext());
+    }
+}
@@ -0,0 +1,380 @@
+package me.sieric.treeset;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tests of {@link MyTreeSetInterface}, which every implementation has to pass */
+abstract class MyTreeSetInterfaceTest<S extends MyTreeSetInterface<Integer>> {
+    S tree;
+    S emptyTree;
+
+    /** Creates an empty set with the natural ordering */
+    abstract S createSet();
+
+    /** Creates an empty set with the given comparator */
+    abstract <E> MyTreeSetInterface<E> createSet(@Nullable Comparator<? super E> comparator);
+
+    @BeforeEach
+    void setUp() {
+        tree = createSet();
+        emptyTree = createSet();
+        for (int i = 0; i < 10; ++i) {
+            tree.add((15 + i * i) % 30);
+        }
+        // tree = {1, 4, 6, 10, 15, 16, 19, 21, 24}
+    }
+
+    @Test
+    void testAdd() {
+        assertTrue(tree.add(3));
+        assertFalse(tree.add(4));
+    }
+
+    @Test
+    void testSize() {
+        assertEquals(tree.size(), 9);
+        assertFalse(tree.add(1));
+        assertEquals(tree.size(), 9);
+        assertTrue(tree.add(2));
+        assertEquals(tree.size(), 10);
+
+        assertEquals(emptyTree.size(), 0);
+    }
+
+    @Test
+    void testContains() {
+        assertTrue(tree.contains(1));
+        assertFalse(tree.contains(2));
+        assertThrows(ClassCastException.class, () -> tree.contains("Sasha"));
+    }
+
+    @Test
+    void testRemove() {
+        assertTrue(tree.remove(1));
+        assertEquals(tree.size(), 8);
+        assertFalse(tree.remove(1));
+        assertTrue(tree.remove(24));
+        assertTrue(tree.remove(10));
+        assertTrue(tree.add(3));
+        assertTrue(tree.remove(4));
+        assertThrows(ClassCastException.class, () -> tree.remove("kek"));
+
+        assertFalse(emptyTree.remove("kek"));
+        emptyTree.add(12);
+        assertTrue(emptyTree.remove(12));
+    }
+
+
+    @Test
+    void testIterator() {
+        var iterator = tree.iterator();
+        assertTrue(iterator.hasNext());
+        assertEquals(iterator.next(), (Integer) 1);
+
+        for (int i = 0; i < 8; ++i) {
+            assertTrue(iterator.hasNext());
+            iterator.next();
+        }
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    @Test
+    void testDescendingIterator() {
+        var iterator = tree.descendingIterator();
+        assertTrue(iterator.hasNext());
+        assertEquals(iterator.next(), (Integer) 24);
+
+        for (int i = 0; i < 8; ++i) {
+            assertTrue(iterator.hasNext());
+            iterator.next();
+        }
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    @Test
+    void testFirst() {
+        assertEquals(tree.first(), (Integer) 1);
+        assertThrows(NoSuchElementException.class, () -> emptyTree.first());
+    }
+
+    @Test
+    void testLast() {
+        assertEquals(tree.last(), (Integer) 24);
+        assertThrows(NoSuchElementException.class, () -> emptyTree.last());
+    }
+
+    @Test
+    void testLower() {
+        assertEquals(tree.lower(4), (Integer) 1);
+        assertNull(tree.lower(1));
+        assertEquals(tree.lower(30), (Integer) 24);
+    }
+
+    @Test
+    void testFloor() {
+        assertEquals(tree.floor(3), (Integer) 1);
+        assertNull(tree.floor(0));
+        assertEquals(tree.floor(24), (Integer) 24);
+    }
+
+    @Test
+    void testCeiling() {
+        assertEquals(tree.ceiling(4), (Integer) 4);
+        assertNull(tree.ceiling(30));
+        assertEquals(tree.ceiling(0), (Integer) 1);
+    }
+
+    @Test
+    void testHigher() {
+        assertEquals(tree.higher(1), (Integer) 4);
+        assertNull(tree.higher(24));
+        assertEquals(tree.higher(0), (Integer) 1);
+    }
+
+    @Test
+    void testClear() {
+        tree.clear();
+        assertEquals(tree.size(), 0);
+        var iterator = tree.iterator();
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    void testSortedInsertions() {
+        S sorted = createSet();
+        S reversed = createSet();
+        for (int i = 0; i < 300000; i++) {
+            assertTrue(sorted.add(i));
+            assertTrue(reversed.add(-i));
+        }
+        for (int i = 0; i < 300000; i++) {
+            assertTrue(sorted.contains(i));
+            assertEquals(reversed.floor(-i), (Integer) (-i));
+        }
+        for (int i = 0; i < 300000; i += 2) {
+            assertTrue(sorted.remove(i));
+        }
+        assertEquals(sorted.size(), 150000);
+        assertEquals(sorted.first(), (Integer) 1);
+        assertEquals(sorted.ceiling(1000), (Integer) 1001);
+    }
+
+    @Test
+    void testRandomAgainstTreeSet() {
+        Random random = new Random(42);
+        TreeSet<Integer> expected = new TreeSet<>(tree);
+        for (int i = 0; i < 50000; i++) {
+            int key = random.nextInt(2000);
+            if (random.nextBoolean()) {
+                assertEquals(tree.add(key), expected.add(key));
+            } else {
+                assertEquals(tree.remove(key), expected.remove(key));
+            }
+            assertEquals(tree.size(), expected.size());
+            assertEquals(tree.lower(key), expected.lower(key));
+            assertEquals(tree.ceiling(key), expected.ceiling(key));
+        }
+        var iterator = tree.iterator();
+        for (Integer key : expected) {
+            assertEquals(iterator.next(), key);
+        }
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    void testTreeSetUsingComparator() {
+        MyTreeSetInterface<Integer> cmpTree = createSet(Comparator.comparingInt(a -> a % 10));
+        assertTrue(cmpTree.add(10));
+        assertTrue(cmpTree.add(2));
+        assertTrue(cmpTree.add(34));
+        assertTrue(cmpTree.add(48));
+        assertTrue(cmpTree.add(51));
+        cmpTree.add(22);
+        assertTrue(cmpTree.contains(1));
+        assertEquals(cmpTree.floor(7), (Integer) 34);
+    }
+
+    @Test
+    void testDescendingSet() {
+        var descendingTree = tree.descendingSet();
+        assertTrue(descendingTree.add(3));
+        assertTrue(tree.contains(3));
+        assertEquals(descendingTree.last(), (Integer) 1);
+        assertEquals(descendingTree.floor(8), (Integer) 10);
+        var iterator = tree.iterator();
+        var descendingDescendingIterator = descendingTree.descendingIterator();
+        while (iterator.hasNext() && descendingDescendingIterator.hasNext()) {
+            assertEquals(iterator.next(), descendingDescendingIterator.next());
+        }
+        assertFalse(iterator.hasNext());
+        assertFalse(descendingDescendingIterator.hasNext());
+
+    }
+
+    @Test
+    void testSubSet() {
+        var subSet = tree.subSet(4, true, 19, false);
+        assertArrayEquals(subSet.toArray(), new Integer[] {4, 6, 10, 15, 16});
+        assertEquals(subSet.size(), 5);
+        assertEquals(subSet.first(), (Integer) 4);
+        assertEquals(subSet.last(), (Integer) 16);
+        assertTrue(subSet.contains(15));
+        assertFalse(subSet.contains(19));
+        assertFalse(subSet.contains(1));
+        assertArrayEquals(tree.subSet(4, false, 19, true).toArray(), new Integer[] {6, 10, 15, 16, 19});
+        assertArrayEquals(tree.subSet(5, 10).toArray(), new Integer[] {6});
+        assertTrue(tree.subSet(7, 9).isEmpty());
+        assertThrows(NoSuchElementException.class, () -> tree.subSet(7, 9).first());
+        assertThrows(IllegalArgumentException.class, () -> tree.subSet(10, 4));
+    }
+
+    @Test
+    void testHeadSetAndTailSet() {
+        assertArrayEquals(tree.headSet(10).toArray(), new Integer[] {1, 4, 6});
+        assertArrayEquals(tree.headSet(10, true).toArray(), new Integer[] {1, 4, 6, 10});
+        assertArrayEquals(tree.tailSet(19).toArray(), new Integer[] {19, 21, 24});
+        assertArrayEquals(tree.tailSet(19, false).toArray(), new Integer[] {21, 24});
+        assertTrue(tree.headSet(1).isEmpty());
+        assertTrue(tree.tailSet(25).isEmpty());
+        assertEquals(tree.tailSet(0).size(), 9);
+    }
+
+    @Test
+    void testViewNavigation() {
+        var subSet = tree.subSet(4, true, 19, false);
+        assertEquals(subSet.lower(4), null);
+        assertEquals(subSet.lower(100), (Integer) 16);
+        assertEquals(subSet.floor(0), null);
+        assertEquals(subSet.floor(12), (Integer) 10);
+        assertEquals(subSet.ceiling(0), (Integer) 4);
+        assertEquals(subSet.ceiling(17), null);
+        assertEquals(subSet.higher(16), null);
+        assertEquals(subSet.higher(-5), (Integer) 4);
+    }
+
+    @Test
+    void testViewIsLive() {
+        var subSet = tree.subSet(4, true, 19, false);
+        assertTrue(tree.add(5));
+        assertTrue(tree.add(30));
+        assertTrue(subSet.contains(5));
+        assertEquals(subSet.size(), 6);
+        assertTrue(subSet.add(11));
+        assertTrue(tree.contains(11));
+        assertThrows(IllegalArgumentException.class, () -> subSet.add(19));
+        assertThrows(IllegalArgumentException.class, () -> subSet.add(0));
+        assertFalse(subSet.remove(24));
+        assertTrue(tree.contains(24));
+        assertTrue(subSet.remove(6));
+        assertFalse(tree.contains(6));
+    }
+
+    @Test
+    void testNestedViews() {
+        var tailSet = tree.tailSet(6, true);
+        var subSet = tailSet.headSet(19, true);
+        assertArrayEquals(subSet.toArray(), new Integer[] {6, 10, 15, 16, 19});
+        assertArrayEquals(subSet.tailSet(10, false).toArray(), new Integer[] {15, 16, 19});
+        assertThrows(IllegalArgumentException.class, () -> subSet.headSet(21));
+        assertThrows(IllegalArgumentException.class, () -> tailSet.subSet(1, 10));
+        assertArrayEquals(tree.headSet(6, false).headSet(6, true).toArray(), new Integer[] {1, 4});
+    }
+
+    @Test
+    void testDescendingViews() {
+        var descendingSet = tree.descendingSet();
+        assertArrayEquals(descendingSet.subSet(19, true, 6, false).toArray(), new Integer[] {19, 16, 15, 10});
+        assertArrayEquals(descendingSet.headSet(10).toArray(), new Integer[] {24, 21, 19, 16, 15});
+        assertArrayEquals(descendingSet.tailSet(10).toArray(), new Integer[] {10, 6, 4, 1});
+        assertThrows(IllegalArgumentException.class, () -> descendingSet.subSet(6, 19));
+        var subSet = tree.subSet(4, true, 19, false).descendingSet();
+        assertEquals(subSet.first(), (Integer) 16);
+        assertEquals(subSet.last(), (Integer) 4);
+        assertEquals(subSet.lower(10), (Integer) 15);
+        assertEquals(subSet.higher(10), (Integer) 6);
+        assertArrayEquals(subSet.descendingSet().toArray(), new Integer[] {4, 6, 10, 15, 16});
+        assertArrayEquals(descendingSet.descendingSet().toArray(), tree.toArray());
+    }
+
+    @Test
+    void testClearView() {
+        tree.subSet(4, true, 19, false).clear();
+        assertArrayEquals(tree.toArray(), new Integer[] {1, 19, 21, 24});
+        tree.tailSet(20).clear();
+        assertArrayEquals(tree.toArray(), new Integer[] {1, 19});
+    }
+
+    @Test
+    void testIteratorInvalidation() {
+        var iterator = tree.iterator();
+        assertTrue(tree.add(5));
+        assertThrows(ConcurrentModificationException.class, iterator::hasNext);
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+        iterator = tree.iterator();
+        assertTrue(tree.remove(1));
+        assertThrows(ConcurrentModificationException.class, iterator::hasNext);
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+        assertTrue(tree.add(42));
+        iterator = tree.iterator();
+        tree.clear();
+        assertThrows(ConcurrentModificationException.class, iterator::hasNext);
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+    }
+
+    @Test
+    void testWithNull() {
+        assertThrows(NullPointerException.class, () -> tree.add(null));
+        assertThrows(NullPointerException.class, () -> tree.remove(null));
+        assertThrows(NullPointerException.class, () -> tree.contains(null));
+
+        MyTreeSetInterface<Integer> strangeTree = createSet((a, b) -> 0);
+        assertTrue(strangeTree.add(null));
+        assertTrue(strangeTree.contains(null));
+        assertTrue(strangeTree.remove(null));
+    }
+
+    private static class Base implements Comparable<Base> {
+        int number;
+        Base(int number) {
+            this.number = number;
+        }
+
+        @Override
+        public int compareTo(@NotNull Base o) {
+            return this.number - o.number;
+        }
+    }
+
+    private static class Special implements Comparable<Base> {
+        int number;
+        Special(int number) {
+            this.number = number;
+        }
+
+        @Override
+        public int compareTo(@NotNull Base o) {
+            return this.number - o.number;
+        }
+    }
+
+    @Test
+    void testCompareNotSuperClasses() {
+        MyTreeSetInterface<Base> baseTree = createSet(null);
+        baseTree.add(new Base(3));
+        baseTree.add(new Base(20));
+        assertTrue(baseTree.contains(new Special(3)));
+        assertTrue(baseTree.remove(new Special(20)));
+    }
+}
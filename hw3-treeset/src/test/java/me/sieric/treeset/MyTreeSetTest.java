@@ -1,235 +1,81 @@
 package me.sieric.treeset;
 
-import org.jetbrains.annotations.NotNull;
-import org.junit.jupiter.api.BeforeEach;
+import org.jetbrains.annotations.Nullable;
 import org.junit.jupiter.api.Test;
 
 import java.util.Comparator;
-import java.util.ConcurrentModificationException;
-import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-class MyTreeSetTest {
-    private MyTreeSet<Integer> tree;
-    private MyTreeSet<Integer> emptyTree;
+class MyTreeSetTest extends MyTreeSetInterfaceTest<MyTreeSet<Integer>> {
 
-    @BeforeEach
-    void setUp() {
-        tree = new MyTreeSet<>();
-        emptyTree = new MyTreeSet<>();
-        for (int i = 0; i < 10; ++i) {
-            tree.add((15 + i * i) % 30);
-        }
-        // tree = {1, 4, 6, 10, 15, 16, 19, 21, 24}
-    }
-
-    @Test
-    void testAdd() {
-        assertTrue(tree.add(3));
-        assertFalse(tree.add(4));
-    }
-
-    @Test
-    void testSize() {
-        assertEquals(tree.size(), 9);
-        assertFalse(tree.add(1));
-        assertEquals(tree.size(), 9);
-        assertTrue(tree.add(2));
-        assertEquals(tree.size(), 10);
-
-        assertEquals(emptyTree.size(), 0);
-    }
-
-    @Test
-    void testContains() {
-        assertTrue(tree.contains(1));
-        assertFalse(tree.contains(2));
-        assertThrows(ClassCastException.class, () -> tree.contains("Sasha"));
+    @Override
+    MyTreeSet<Integer> createSet() {
+        return new MyTreeSet<>();
     }
 
-    @Test
-    void testRemove() {
-        assertTrue(tree.remove(1));
-        assertEquals(tree.size(), 8);
-        assertFalse(tree.remove(1));
-        assertTrue(tree.remove(24));
-        assertTrue(tree.remove(10));
-        assertTrue(tree.add(3));
-        assertTrue(tree.remove(4));
-        assertThrows(ClassCastException.class, () -> tree.remove("kek"));
-
-        assertFalse(emptyTree.remove("kek"));
-        emptyTree.add(12);
-        assertTrue(emptyTree.remove(12));
+    @Override
+    <E> MyTreeSet<E> createSet(@Nullable Comparator<? super E> comparator) {
+        return new MyTreeSet<>(comparator);
     }
 
-
     @Test
-    void testIterator() {
-        var iterator = tree.iterator();
-        assertTrue(iterator.hasNext());
-        assertEquals(iterator.next(), (Integer) 1);
-
-        for (int i = 0; i < 8; ++i) {
-            assertTrue(iterator.hasNext());
-            iterator.next();
-        }
-        assertFalse(iterator.hasNext());
-        assertThrows(NoSuchElementException.class, iterator::next);
-    }
-
-    @Test
-    void testDescendingIterator() {
-        var iterator = tree.descendingIterator();
-        assertTrue(iterator.hasNext());
-        assertEquals(iterator.next(), (Integer) 24);
-
-        for (int i = 0; i < 8; ++i) {
-            assertTrue(iterator.hasNext());
-            iterator.next();
-        }
-        assertFalse(iterator.hasNext());
-        assertThrows(NoSuchElementException.class, iterator::next);
-    }
-
-    @Test
-    void testFirst() {
-        assertEquals(tree.first(), (Integer) 1);
-        assertThrows(NoSuchElementException.class, () -> emptyTree.first());
-    }
-
-    @Test
-    void testLast() {
-        assertEquals(tree.last(), (Integer) 24);
-        assertThrows(NoSuchElementException.class, () -> emptyTree.last());
-    }
-
-    @Test
-    void testLower() {
-        assertEquals(tree.lower(4), (Integer) 1);
-        assertNull(tree.lower(1));
-        assertEquals(tree.lower(30), (Integer) 24);
-    }
-
-    @Test
-    void testFloor() {
-        assertEquals(tree.floor(3), (Integer) 1);
-        assertNull(tree.floor(0));
-        assertEquals(tree.floor(24), (Integer) 24);
-    }
-
-    @Test
-    void testCeiling() {
-        assertEquals(tree.ceiling(4), (Integer) 4);
-        assertNull(tree.ceiling(30));
-        assertEquals(tree.ceiling(0), (Integer) 1);
-    }
-
-    @Test
-    void testHigher() {
-        assertEquals(tree.higher(1), (Integer) 4);
-        assertNull(tree.higher(24));
-        assertEquals(tree.higher(0), (Integer) 1);
-    }
-
-    @Test
-    void testClear() {
-        tree.clear();
-        assertEquals(tree.size(), 0);
-        var iterator = tree.iterator();
-        assertFalse(iterator.hasNext());
-    }
-
-    @Test
-    void testTreeSetUsingComparator() {
-        var cmpTree = new MyTreeSet<>(Comparator.comparingInt(a -> (int) a % 10));
-        assertTrue(cmpTree.add(10));
-        assertTrue(cmpTree.add(2));
-        assertTrue(cmpTree.add(34));
-        assertTrue(cmpTree.add(48));
-        assertTrue(cmpTree.add(51));
-        cmpTree.add(22);
-        assertTrue(cmpTree.contains(1));
-        assertEquals(cmpTree.floor(7), 34);
-    }
-
-    @Test
-    void testDescendingSet() {
+    void testRank() {
+        assertEquals(tree.rank(1), 0);
+        assertEquals(tree.rank(10), 3);
+        assertEquals(tree.rank(11), 4);
+        assertEquals(tree.rank(0), 0);
+        assertEquals(tree.rank(30), 9);
+        assertEquals(emptyTree.rank(5), 0);
         var descendingTree = tree.descendingSet();
-        assertTrue(descendingTree.add(3));
-        assertTrue(tree.contains(3));
-        assertEquals(descendingTree.last(), (Integer) 1);
-        assertEquals(descendingTree.floor(8), (Integer) 10);
-        var iterator = tree.iterator();
-        var descendingDescendingIterator = descendingTree.descendingIterator();
-        while (iterator.hasNext() && descendingDescendingIterator.hasNext()) {
-            assertEquals(iterator.next(), descendingDescendingIterator.next());
-        }
-        assertFalse(iterator.hasNext());
-        assertFalse(descendingDescendingIterator.hasNext());
-
-    }
-
-    @Test
-    void testIteratorInvalidation() {
-        var iterator = tree.iterator();
-        assertTrue(tree.add(5));
-        assertThrows(ConcurrentModificationException.class, iterator::hasNext);
-        assertThrows(ConcurrentModificationException.class, iterator::next);
-        iterator = tree.iterator();
-        assertTrue(tree.remove(1));
-        assertThrows(ConcurrentModificationException.class, iterator::hasNext);
-        assertThrows(ConcurrentModificationException.class, iterator::next);
-        assertTrue(tree.add(42));
-        iterator = tree.iterator();
-        tree.clear();
-        assertThrows(ConcurrentModificationException.class, iterator::hasNext);
-        assertThrows(ConcurrentModificationException.class, iterator::next);
-    }
-
-    @Test
-    void testWithNull() {
-        assertThrows(NullPointerException.class, () -> tree.add(null));
-        assertThrows(NullPointerException.class, () -> tree.remove(null));
-        assertThrows(NullPointerException.class, () -> tree.contains(null));
-
-        MyTreeSet strangeTree = new MyTreeSet<Integer>((a, b) -> 0);
-        assertTrue(strangeTree.add(null));
-        assertTrue(strangeTree.contains(null));
-        assertTrue(strangeTree.remove(null));
-    }
-
-    private static class Base implements Comparable<Base> {
-        int number;
-        Base(int number) {
-            this.number = number;
-        }
-
-        @Override
-        public int compareTo(@NotNull Base o) {
-            return this.number - o.number;
+        assertEquals(descendingTree.rank(24), 0);
+        assertEquals(descendingTree.rank(10), 5);
+        assertEquals(descendingTree.rank(11), 5);
+        assertEquals(descendingTree.rank(0), 9);
+    }
+
+    @Test
+    void testSelect() {
+        assertEquals(tree.select(0), (Integer) 1);
+        assertEquals(tree.select(3), (Integer) 10);
+        assertEquals(tree.select(8), (Integer) 24);
+        assertEquals(tree.descendingSet().select(0), (Integer) 24);
+        assertEquals(tree.descendingSet().select(8), (Integer) 1);
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.select(9));
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.select(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> emptyTree.select(0));
+    }
+
+    @Test
+    void testCountInRange() {
+        assertEquals(tree.countInRange(4, 16), 4);
+        assertEquals(tree.countInRange(5, 15), 2);
+        assertEquals(tree.countInRange(0, 100), 9);
+        assertEquals(tree.countInRange(7, 7), 0);
+        assertEquals(tree.descendingSet().countInRange(16, 4), 4);
+        assertThrows(IllegalArgumentException.class, () -> tree.countInRange(16, 4));
+        assertThrows(IllegalArgumentException.class, () -> tree.descendingSet().countInRange(4, 16));
+    }
+
+    @Test
+    void testOrderStatisticsAfterChanges() {
+        Random random = new Random(42);
+        TreeSet<Integer> expected = new TreeSet<>();
+        MyTreeSet<Integer> set = new MyTreeSet<>();
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(1000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(set.remove(key), expected.remove(key));
+            } else {
+                assertEquals(set.add(key), expected.add(key));
+            }
+            assertEquals(set.rank(key), expected.headSet(key).size());
+            if (!expected.isEmpty()) {
+                int index = random.nextInt(expected.size());
+                assertEquals(set.select(index), expected.stream().skip(index).findFirst().get());
+            }
         }
     }
-
-    private static class Special implements Comparable<Base> {
-        int number;
-        Special(int number) {
-            this.number = number;
-        }
-
-        @Override
-        public int compareTo(@NotNull Base o) {
-            return this.number - o.number;
-        }
-    }
-
-    @Test
-    void testCompareNotSuperClasses() {
-        MyTreeSet<Base> baseTree = new MyTreeSet<>();
-        baseTree.add(new Base(3));
-        baseTree.add(new Base(20));
-        assertTrue(baseTree.contains(new Special(3)));
-        assertTrue(baseTree.remove(new Special(20)));
-    }
-}
\ No newline at end of file
+}